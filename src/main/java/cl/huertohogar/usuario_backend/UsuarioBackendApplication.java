@@ -3,11 +3,13 @@ package cl.huertohogar.usuario_backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import cl.huertohogar.usuario_backend.config.JwtProperties;
 
 @SpringBootApplication
 @EnableConfigurationProperties(JwtProperties.class)
+@EnableScheduling
 public class UsuarioBackendApplication {
 
 	public static void main(String[] args) {
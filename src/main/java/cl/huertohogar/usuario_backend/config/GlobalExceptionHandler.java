@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -13,8 +14,13 @@ import cl.huertohogar.usuario_backend.exception.AuthenticationFailedException;
 import cl.huertohogar.usuario_backend.exception.CiudadNotFoundException;
 import cl.huertohogar.usuario_backend.exception.CiudadNotValidException;
 import cl.huertohogar.usuario_backend.exception.EmailAlreadyExistsException;
+import cl.huertohogar.usuario_backend.exception.OrdenNotFoundException;
+import cl.huertohogar.usuario_backend.exception.OrdenNotValidException;
 import cl.huertohogar.usuario_backend.exception.RegionNotFoundException;
 import cl.huertohogar.usuario_backend.exception.RegionNotValidException;
+import cl.huertohogar.usuario_backend.exception.RutAlreadyExistsException;
+import cl.huertohogar.usuario_backend.exception.ServiceOverloadedException;
+import cl.huertohogar.usuario_backend.exception.TooManyLoginAttemptsException;
 import cl.huertohogar.usuario_backend.exception.UsuarioNotFoundException;
 import cl.huertohogar.usuario_backend.exception.UsuarioNotValidException;
 import io.swagger.v3.oas.annotations.Hidden;
@@ -73,6 +79,20 @@ public class GlobalExceptionHandler {
             .body(buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST));
     }
 
+    @ExceptionHandler(OrdenNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleOrdenNotFound(OrdenNotFoundException ex) {
+        return ResponseEntity
+            .status(HttpStatus.NOT_FOUND)
+            .body(buildErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND));
+    }
+
+    @ExceptionHandler(OrdenNotValidException.class)
+    public ResponseEntity<Map<String, Object>> handleOrdenNotValid(OrdenNotValidException ex) {
+        return ResponseEntity
+            .status(HttpStatus.BAD_REQUEST)
+            .body(buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST));
+    }
+
     @ExceptionHandler(AuthenticationFailedException.class)
     public ResponseEntity<Map<String, Object>> handleAuthenticationFailed(AuthenticationFailedException ex) {
         return ResponseEntity
@@ -87,6 +107,29 @@ public class GlobalExceptionHandler {
             .body(buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT));
     }
 
+    @ExceptionHandler(RutAlreadyExistsException.class)
+    public ResponseEntity<Map<String, Object>> handleRutAlreadyExists(RutAlreadyExistsException ex) {
+        return ResponseEntity
+            .status(HttpStatus.CONFLICT)
+            .body(buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT));
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceOverloaded(ServiceOverloadedException ex) {
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    @ExceptionHandler(TooManyLoginAttemptsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyLoginAttempts(TooManyLoginAttemptsException ex) {
+        return ResponseEntity
+            .status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(buildErrorResponse(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
         return ResponseEntity
@@ -1,5 +1,8 @@
 package cl.huertohogar.usuario_backend.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -8,6 +11,22 @@ import org.springframework.stereotype.Component;
 public class JwtProperties {
     private String secret;
     private Long expiration;
+    // Duración (ms) de los refresh tokens opacos
+    private Long refreshExpiration = 2592000000L;
+    // HS256 (jwt.secret), ES256 o EdDSA (par de llaves + kid publicado en /.well-known/jwks.json)
+    private String algorithm = "HS256";
+    private String keyId;
+    private String privateKey;
+    private String publicKey;
+    // Instante ISO-8601 hasta el cual se aceptan tokens HS256 sin kid (firmados con jwt.secret) después de pasar
+    // a ES256/EdDSA o al anillo de llaves. Vacío = no se aceptan
+    private String legacyHs256AcceptUntil;
+    // Anillo de llaves (rotación): cada llave tiene su kid; firma la de activate-at más reciente ya cumplida
+    private List<RingKey> keys = new ArrayList<>();
+    // Archivo .properties opcional con más llaves (jwt.keys[n].*), se recarga periódicamente
+    private String keyFile;
+    private long keyRingRefresh = 60000;
+    private Cache cache = new Cache();
 
     public String getSecret() {
         return secret;
@@ -24,4 +43,186 @@ public class JwtProperties {
     public void setExpiration(Long expiration) {
         this.expiration = expiration;
     }
-}
\ No newline at end of file
+
+    public Long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    public void setRefreshExpiration(Long refreshExpiration) {
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public void setKeyId(String keyId) {
+        this.keyId = keyId;
+    }
+
+    public String getPrivateKey() {
+        return privateKey;
+    }
+
+    public void setPrivateKey(String privateKey) {
+        this.privateKey = privateKey;
+    }
+
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    public void setPublicKey(String publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    public String getLegacyHs256AcceptUntil() {
+        return legacyHs256AcceptUntil;
+    }
+
+    public void setLegacyHs256AcceptUntil(String legacyHs256AcceptUntil) {
+        this.legacyHs256AcceptUntil = legacyHs256AcceptUntil;
+    }
+
+    public List<RingKey> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<RingKey> keys) {
+        this.keys = keys;
+    }
+
+    public String getKeyFile() {
+        return keyFile;
+    }
+
+    public void setKeyFile(String keyFile) {
+        this.keyFile = keyFile;
+    }
+
+    public long getKeyRingRefresh() {
+        return keyRingRefresh;
+    }
+
+    public void setKeyRingRefresh(long keyRingRefresh) {
+        this.keyRingRefresh = keyRingRefresh;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    // Configuración del cache de tokens ya verificados (jwt.cache.*)
+    public static class Cache {
+        private boolean enabled = false;
+        private int maxSize = 10000;
+        // Tiempo máximo (ms) que un token verificado se mantiene en cache, nunca más allá de su exp
+        private long ttl = 300000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public long getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(long ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    // Llave del anillo (jwt.keys[n].*). HS256 usa secret; ES256/EdDSA usan private-key/public-key en PEM.
+    // Una llave sin private-key ni secret de firma sólo se usa para verificar.
+    public static class RingKey {
+        private String kid;
+        private String algorithm = "HS256";
+        private String secret;
+        private String privateKey;
+        private String publicKey;
+        // Instante ISO-8601 desde el cual la llave pasa a firmar (vacío = desde ya)
+        private String activateAt;
+        // Instante ISO-8601 desde el cual la llave deja de verificar y de publicarse (vacío = nunca)
+        private String retireAt;
+
+        public String getKid() {
+            return kid;
+        }
+
+        public void setKid(String kid) {
+            this.kid = kid;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+
+        public String getPrivateKey() {
+            return privateKey;
+        }
+
+        public void setPrivateKey(String privateKey) {
+            this.privateKey = privateKey;
+        }
+
+        public String getPublicKey() {
+            return publicKey;
+        }
+
+        public void setPublicKey(String publicKey) {
+            this.publicKey = publicKey;
+        }
+
+        public String getActivateAt() {
+            return activateAt;
+        }
+
+        public void setActivateAt(String activateAt) {
+            this.activateAt = activateAt;
+        }
+
+        public String getRetireAt() {
+            return retireAt;
+        }
+
+        public void setRetireAt(String retireAt) {
+            this.retireAt = retireAt;
+        }
+    }
+}
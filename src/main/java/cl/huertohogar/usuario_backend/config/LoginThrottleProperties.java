@@ -0,0 +1,112 @@
+package cl.huertohogar.usuario_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "login.throttle")
+public class LoginThrottleProperties {
+    private boolean enabled = true;
+    // Intentos en ráfaga y recarga por minuto, por email
+    private int emailCapacity = 5;
+    private double emailRefillPerMinute = 5;
+    // Intentos en ráfaga y recarga por minuto, por IP
+    private int ipCapacity = 30;
+    private double ipRefillPerMinute = 30;
+    // Fallos consecutivos tolerados por email / por IP; desde ahí cada fallo bloquea base * 2^n ms, hasta max
+    private int emailBackoffAfter = 3;
+    private int ipBackoffAfter = 20;
+    private long baseBackoff = 1000;
+    private long maxBackoff = 900000;
+    // Límite de llaves (email/IP) en memoria y tiempo (ms) sin uso tras el cual se descartan
+    private int maxEntries = 100000;
+    private long idleTimeout = 900000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getEmailCapacity() {
+        return emailCapacity;
+    }
+
+    public void setEmailCapacity(int emailCapacity) {
+        this.emailCapacity = emailCapacity;
+    }
+
+    public double getEmailRefillPerMinute() {
+        return emailRefillPerMinute;
+    }
+
+    public void setEmailRefillPerMinute(double emailRefillPerMinute) {
+        this.emailRefillPerMinute = emailRefillPerMinute;
+    }
+
+    public int getIpCapacity() {
+        return ipCapacity;
+    }
+
+    public void setIpCapacity(int ipCapacity) {
+        this.ipCapacity = ipCapacity;
+    }
+
+    public double getIpRefillPerMinute() {
+        return ipRefillPerMinute;
+    }
+
+    public void setIpRefillPerMinute(double ipRefillPerMinute) {
+        this.ipRefillPerMinute = ipRefillPerMinute;
+    }
+
+    public int getEmailBackoffAfter() {
+        return emailBackoffAfter;
+    }
+
+    public void setEmailBackoffAfter(int emailBackoffAfter) {
+        this.emailBackoffAfter = emailBackoffAfter;
+    }
+
+    public int getIpBackoffAfter() {
+        return ipBackoffAfter;
+    }
+
+    public void setIpBackoffAfter(int ipBackoffAfter) {
+        this.ipBackoffAfter = ipBackoffAfter;
+    }
+
+    public long getBaseBackoff() {
+        return baseBackoff;
+    }
+
+    public void setBaseBackoff(long baseBackoff) {
+        this.baseBackoff = baseBackoff;
+    }
+
+    public long getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(long maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+}
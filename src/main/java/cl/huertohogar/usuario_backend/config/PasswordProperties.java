@@ -0,0 +1,198 @@
+package cl.huertohogar.usuario_backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "password")
+public class PasswordProperties {
+    // Hilos dedicados a hashear/verificar contraseñas (0 = cantidad de núcleos)
+    private int threads = 0;
+    // Solicitudes que pueden esperar turno; sobre eso se responde 503
+    private int queueCapacity = 64;
+    // Tiempo máximo (ms) que una solicitud espera el resultado
+    private long timeout = 5000;
+    // Segundos sugeridos al cliente en el header Retry-After
+    private long retryAfter = 2;
+    // Costo BCrypt fijo (0 = calibrar al iniciar según target-hash-time)
+    private int bcryptStrength = 0;
+    // Tiempo objetivo (ms) de un hash BCrypt en esta máquina, usado por la calibración
+    private long targetHashTime = 100;
+    // Costo mínimo aceptado aunque la máquina sea lenta
+    private int bcryptMinStrength = 10;
+    // Cada cuánto (ms) se escriben en lote los hashes recalculados tras un login
+    private long rehashFlushInterval = 5000;
+    // Algoritmo para hashes nuevos: bcrypt | argon2 | pbkdf2. Los hashes de otro algoritmo se migran en el login
+    private String algorithm = "bcrypt";
+    private Argon2 argon2 = new Argon2();
+    private Pbkdf2 pbkdf2 = new Pbkdf2();
+    // Archivo binario con los SHA-1 de contraseñas filtradas (20 bytes cada uno, ordenados); vacío = sin verificar
+    private String breachedHashFile;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(long retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+
+    public void setBcryptStrength(int bcryptStrength) {
+        this.bcryptStrength = bcryptStrength;
+    }
+
+    public long getTargetHashTime() {
+        return targetHashTime;
+    }
+
+    public void setTargetHashTime(long targetHashTime) {
+        this.targetHashTime = targetHashTime;
+    }
+
+    public int getBcryptMinStrength() {
+        return bcryptMinStrength;
+    }
+
+    public void setBcryptMinStrength(int bcryptMinStrength) {
+        this.bcryptMinStrength = bcryptMinStrength;
+    }
+
+    public long getRehashFlushInterval() {
+        return rehashFlushInterval;
+    }
+
+    public void setRehashFlushInterval(long rehashFlushInterval) {
+        this.rehashFlushInterval = rehashFlushInterval;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public Argon2 getArgon2() {
+        return argon2;
+    }
+
+    public void setArgon2(Argon2 argon2) {
+        this.argon2 = argon2;
+    }
+
+    public Pbkdf2 getPbkdf2() {
+        return pbkdf2;
+    }
+
+    public void setPbkdf2(Pbkdf2 pbkdf2) {
+        this.pbkdf2 = pbkdf2;
+    }
+
+    public String getBreachedHashFile() {
+        return breachedHashFile;
+    }
+
+    public void setBreachedHashFile(String breachedHashFile) {
+        this.breachedHashFile = breachedHashFile;
+    }
+
+    // Parámetros Argon2id (password.argon2.*); memoria en KiB
+    public static class Argon2 {
+        private int saltLength = 16;
+        private int hashLength = 32;
+        private int parallelism = 1;
+        private int memory = 19456;
+        private int iterations = 2;
+
+        public int getSaltLength() {
+            return saltLength;
+        }
+
+        public void setSaltLength(int saltLength) {
+            this.saltLength = saltLength;
+        }
+
+        public int getHashLength() {
+            return hashLength;
+        }
+
+        public void setHashLength(int hashLength) {
+            this.hashLength = hashLength;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getMemory() {
+            return memory;
+        }
+
+        public void setMemory(int memory) {
+            this.memory = memory;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+    }
+
+    // Parámetros PBKDF2-HMAC-SHA256 (password.pbkdf2.*)
+    public static class Pbkdf2 {
+        private int saltLength = 16;
+        private int iterations = 600000;
+
+        public int getSaltLength() {
+            return saltLength;
+        }
+
+        public void setSaltLength(int saltLength) {
+            this.saltLength = saltLength;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package cl.huertohogar.usuario_backend.config;
 
+import cl.huertohogar.usuario_backend.service.TokenEpochService;
 import cl.huertohogar.usuario_backend.util.JwtUtil;
+import cl.huertohogar.usuario_backend.util.TokenPrincipal;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,15 +11,18 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import java.util.Arrays;
-import java.util.HashMap;
-
 @Component
 public class RoleCheckInterceptor implements HandlerInterceptor {
 
+    // Atributo del request donde queda el TokenPrincipal ya verificado
+    public static final String PRINCIPAL_ATTRIBUTE = "tokenPrincipal";
+
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenEpochService tokenEpochService;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) 
             throws Exception {
@@ -42,39 +48,46 @@ public class RoleCheckInterceptor implements HandlerInterceptor {
         }
 
         String token = authHeader.substring(7);
-        
-        // Validar que el token sea válido
-        if (!jwtUtil.isTokenValid(token)) {
+
+        // Verificar el token una sola vez (firma + expiración + claims)
+        TokenPrincipal principal;
+        try {
+            principal = jwtUtil.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.getWriter().write("{\"error\": \"Token inválido o expirado\"}");
             return false;
         }
 
-        // Extraer el rol del token
-        String userRol = null;
-        try {
-            userRol = jwtUtil.extractRol(token);
-        } catch (Exception e) {
+        // Token emitido antes de un cambio de rol o contraseña (lookup en memoria, sin consultar la BD)
+        if (tokenEpochService.isStale(principal.usuarioId(), principal.epoch())) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
-            response.getWriter().write("{\"error\": \"No se pudo extraer el rol del token\"}");
+            response.getWriter().write("{\"error\": \"Token revocado, vuelve a iniciar sesión\"}");
             return false;
         }
 
-        String[] requiredRoles = roleAnnotation.value();
+        String userRol = principal.rol();
+        if (userRol == null) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"No se pudo extraer el rol del token\"}");
+            return false;
+        }
 
         // Verificar si el rol del usuario está en los roles requeridos
-        if (!Arrays.asList(requiredRoles).contains(userRol)) {
+        if (!principal.hasRol(roleAnnotation.value())) {
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             response.setContentType("application/json");
             response.getWriter().write("{\"error\": \"No tienes permiso para acceder a este recurso\"}");
             return false;
         }
 
-        // Guardar el rol en el request para usarlo en el controller si es necesario
+        // Guardar los datos del token en el request para usarlos en el controller
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
         request.setAttribute("userRol", userRol);
-        request.setAttribute("usuarioId", jwtUtil.extractUsuarioId(token));
+        request.setAttribute("usuarioId", principal.usuarioId());
 
         return true;
     }
@@ -1,8 +1,12 @@
 package cl.huertohogar.usuario_backend.controller;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,6 +15,7 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,6 +24,7 @@ import cl.huertohogar.usuario_backend.service.CiudadService;
 import cl.huertohogar.usuario_backend.config.RequireRole;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -35,6 +41,9 @@ public class CiudadController {
     @Autowired
     private CiudadService ciudadService;
 
+    @Value("${referencia.cache-max-age:300}")
+    private long cacheMaxAge;
+
     @Operation(
         summary = "Crear una nueva ciudad",
         description = "Crea una nueva ciudad en el sistema con su nombre y región asociada.",
@@ -84,8 +93,13 @@ public class CiudadController {
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200",
-            description = "Lista de ciudades obtenida exitosamente"
+            description = "Lista de ciudades obtenida exitosamente (puede venir comprimida con gzip)",
+            content = @Content(
+                mediaType = "application/json",
+                array = @ArraySchema(schema = @Schema(implementation = Ciudad.class))
+            )
         ),
+        @ApiResponse(responseCode = "304", description = "Sin cambios respecto del ETag enviado en If-None-Match"),
         @ApiResponse(
             responseCode = "404",
             description = "No se encontraron ciudades",
@@ -97,8 +111,13 @@ public class CiudadController {
     })
     @RequireRole({"ADMIN"})
     @GetMapping("")
-    public ResponseEntity<List<Ciudad>> getCiudades() {
-        return ResponseEntity.ok(ciudadService.findAll());
+    public ResponseEntity<byte[]> getCiudades(
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // JSON ya serializado y comprimido; se regenera sólo cuando cambian los datos.
+        // private: el endpoint requiere rol, así que un cache compartido (CDN) no debe guardarlo
+        return ciudadService.findAllJson().toResponse(ifNoneMatch, acceptEncoding,
+            CacheControl.maxAge(cacheMaxAge, TimeUnit.SECONDS).cachePrivate());
     }
 
     @Operation(
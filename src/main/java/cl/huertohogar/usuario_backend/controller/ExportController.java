@@ -0,0 +1,99 @@
+package cl.huertohogar.usuario_backend.controller;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import cl.huertohogar.usuario_backend.config.RequireRole;
+import cl.huertohogar.usuario_backend.exception.UsuarioNotValidException;
+import cl.huertohogar.usuario_backend.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+// Exportaciones completas para administración y sincronización con el CRM. La respuesta se va escribiendo
+// mientras se lee la tabla (no se arma en memoria), así que puede durar lo que tarde recorrerla.
+@RestController
+@RequestMapping("/api/v1/export")
+@Tag(name = "Exportación", description = "Exportación de usuarios y órdenes en NDJSON o CSV")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    @Autowired
+    private ExportService exportService;
+
+    @Operation(
+        summary = "Exportar usuarios",
+        description = "Descarga todos los usuarios (sin contraseñas) ordenados por ID, una fila por línea.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+        @ApiResponse(responseCode = "400", description = "Formato no soportado"),
+        @ApiResponse(responseCode = "503", description = "Límite de exportaciones simultáneas alcanzado (ver Retry-After)")
+    })
+    @RequireRole("ADMIN")
+    @GetMapping("/usuarios")
+    public ResponseEntity<StreamingResponseBody> exportUsuarios(
+            @Parameter(description = "ndjson o csv", example = "ndjson")
+            @RequestParam(defaultValue = "ndjson") String formato) {
+        ExportService.Formato f = parseFormato(formato);
+        return stream("usuarios", f, out -> exportService.exportUsuarios(out, f));
+    }
+
+    @Operation(
+        summary = "Exportar órdenes",
+        description = "Descarga todas las órdenes ordenadas por ID, una fila por línea (con id_usuario, sin el usuario completo).",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+        @ApiResponse(responseCode = "400", description = "Formato no soportado"),
+        @ApiResponse(responseCode = "503", description = "Límite de exportaciones simultáneas alcanzado (ver Retry-After)")
+    })
+    @RequireRole("ADMIN")
+    @GetMapping("/ordenes")
+    public ResponseEntity<StreamingResponseBody> exportOrdenes(
+            @Parameter(description = "ndjson o csv", example = "csv")
+            @RequestParam(defaultValue = "ndjson") String formato) {
+        ExportService.Formato f = parseFormato(formato);
+        return stream("ordenes", f, out -> exportService.exportOrdenes(out, f));
+    }
+
+    // El cupo se reserva aquí, mientras todavía se puede responder 503, y se libera al terminar de escribir
+    private ResponseEntity<StreamingResponseBody> stream(String nombre, ExportService.Formato formato, StreamingResponseBody body) {
+        String extension = formato == ExportService.Formato.CSV ? "csv" : "ndjson";
+        exportService.reservar();
+        return ResponseEntity.ok()
+            .contentType(formato == ExportService.Formato.CSV ? CSV : NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + nombre + "." + extension + "\"")
+            .body(out -> {
+                try {
+                    body.writeTo(out);
+                } finally {
+                    exportService.liberar();
+                }
+            });
+    }
+
+    private static ExportService.Formato parseFormato(String formato) {
+        try {
+            return ExportService.Formato.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new UsuarioNotValidException("Formato de exportación no soportado: " + formato + " (use ndjson o csv)");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package cl.huertohogar.usuario_backend.controller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import cl.huertohogar.usuario_backend.util.JwtKeyManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+// Endpoint publico con las llaves publicas de firma (JWKS), para que otros servicios verifiquen tokens localmente
+@RestController
+@Tag(name = "JWKS", description = "Llaves públicas para verificar tokens JWT")
+public class JwksController {
+
+    @Autowired
+    private JwtKeyManager keyManager;
+
+    @Operation(
+        summary = "Obtener llaves públicas (JWKS)",
+        description = "Retorna el JWK Set con las llaves públicas usadas para firmar los tokens (ES256/EdDSA). Endpoint público."
+    )
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwks() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
+            .body(keyManager.getJwksJson());
+    }
+}
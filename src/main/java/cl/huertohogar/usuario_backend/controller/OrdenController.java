@@ -0,0 +1,357 @@
+package cl.huertohogar.usuario_backend.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import cl.huertohogar.usuario_backend.config.RequireRole;
+import cl.huertohogar.usuario_backend.config.RoleCheckInterceptor;
+import cl.huertohogar.usuario_backend.dto.OrdenRequest;
+import cl.huertohogar.usuario_backend.dto.OrdenResponse;
+import cl.huertohogar.usuario_backend.model.Orden;
+import cl.huertohogar.usuario_backend.model.OrdenResumenUsuario;
+import cl.huertohogar.usuario_backend.model.Usuario;
+import cl.huertohogar.usuario_backend.service.OrdenService;
+import cl.huertohogar.usuario_backend.util.TokenPrincipal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+// Las respuestas son OrdenResponse (con idUsuario): nunca se serializa el usuario de la orden
+@RestController
+@RequestMapping("/api/v1/ordenes")
+@Tag(name = "API Orden", description = "Operaciones relacionadas con las órdenes de compra")
+public class OrdenController {
+
+    @Autowired
+    private OrdenService ordenService;
+
+    @Operation(
+        summary = "Crear una orden",
+        description = "Crea una orden. Un USER sólo puede crear órdenes propias.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Orden creada exitosamente",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = OrdenResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Datos inválidos",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"timestamp\":\"2025-11-10T10:30:00\",\"message\":\"El total de la orden debe ser mayor a 0\",\"status\":400}")
+            )
+        ),
+        @ApiResponse(responseCode = "404", description = "Usuario no encontrado", content = @Content(mediaType = "application/json"))
+    })
+    @RequireRole({"USER", "ADMIN"})
+    @PostMapping("")
+    public ResponseEntity<OrdenResponse> createOrden(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Ingrese datos de la orden a crear",
+                required = true,
+                content = @Content(
+                    schema = @Schema(implementation = OrdenRequest.class),
+                    examples = @ExampleObject(
+                        name = "Ejemplo de orden",
+                        value = "{\"idUsuario\":1,\"fechaOrden\":\"2025-11-10\",\"estado\":\"PENDIENTE\",\"totalOrden\":45990.5,\"direccionEnvio\":\"Av. Providencia 456, Santiago\"}"
+                    )
+                )
+            )
+            @org.springframework.web.bind.annotation.RequestBody OrdenRequest orden,
+            @Parameter(hidden = true)
+            @RequestAttribute(RoleCheckInterceptor.PRINCIPAL_ATTRIBUTE) TokenPrincipal principal) {
+        if (!principal.isAdmin() && (orden.getIdUsuario() == null || !orden.getIdUsuario().equals(principal.usuarioId()))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        Orden nuevaOrden = ordenService.save(toOrden(orden));
+        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(nuevaOrden));
+    }
+
+    @Operation(
+        summary = "Crear órdenes en lote",
+        description = "Crea hasta orden.lote.max-size órdenes en una sola transacción (todas o ninguna). "
+            + "Pensado para el servicio de checkout: los usuarios se validan con una sola consulta y las "
+            + "órdenes se insertan en batch. Responde las órdenes creadas, en el mismo orden, con su ID.",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Órdenes creadas exitosamente",
+            content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = OrdenResponse.class)))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Lote vacío, demasiado grande o con alguna orden inválida (se indica su posición)",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"timestamp\":\"2025-11-10T10:30:00\",\"message\":\"Orden 3: El total de la orden debe ser mayor a 0\",\"status\":400}")
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Alguno de los usuarios no existe",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"timestamp\":\"2025-11-10T10:30:00\",\"message\":\"Usuarios no encontrados: [999]\",\"status\":404}")
+            )
+        )
+    })
+    @RequireRole({"ADMIN"})
+    @PostMapping("/lote")
+    public ResponseEntity<List<OrdenResponse>> createOrdenes(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Órdenes a crear",
+                required = true,
+                content = @Content(array = @ArraySchema(schema = @Schema(implementation = OrdenRequest.class)))
+            )
+            @org.springframework.web.bind.annotation.RequestBody List<OrdenRequest> ordenes) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(ordenService.saveAll(ordenes));
+    }
+
+    @Operation(
+        summary = "Listar todas las órdenes",
+        description = "Obtiene todas las órdenes registradas",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista de órdenes obtenida exitosamente"),
+        @ApiResponse(responseCode = "404", description = "No se encontraron órdenes", content = @Content(mediaType = "application/json"))
+    })
+    @RequireRole({"ADMIN"})
+    @GetMapping("")
+    public ResponseEntity<List<OrdenResponse>> getOrdenes() {
+        return ResponseEntity.ok(ordenService.findAll());
+    }
+
+    @Operation(
+        summary = "Obtener orden por ID",
+        description = "Un USER sólo puede ver sus propias órdenes",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Orden encontrada"),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Orden no encontrada",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"timestamp\":\"2025-11-10T10:30:00\",\"message\":\"Orden no encontrada con id: 999\",\"status\":404}")
+            )
+        )
+    })
+    @RequireRole({"USER", "ADMIN"})
+    @GetMapping("/{id}")
+    public ResponseEntity<OrdenResponse> getOrdenById(
+            @Parameter(description = "ID de la orden", example = "1")
+            @PathVariable Integer id,
+            @Parameter(hidden = true)
+            @RequestAttribute(RoleCheckInterceptor.PRINCIPAL_ATTRIBUTE) TokenPrincipal principal) {
+        Orden orden = ordenService.findById(id);
+        // getIdUsuario() sobre el proxy lazy no consulta la tabla usuario
+        if (!principal.isAdmin() && !orden.getUsuario().getIdUsuario().equals(principal.usuarioId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(toResponse(orden));
+    }
+
+    @Operation(
+        summary = "Actualizar orden completa",
+        description = "Reemplaza todos los datos de una orden",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Orden actualizada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "404", description = "Orden o usuario no encontrado", content = @Content(mediaType = "application/json"))
+    })
+    @RequireRole({"ADMIN"})
+    @PutMapping("/{id}")
+    public ResponseEntity<OrdenResponse> updateOrden(
+            @Parameter(description = "ID de la orden", example = "1")
+            @PathVariable Integer id,
+            @org.springframework.web.bind.annotation.RequestBody OrdenRequest orden) {
+        return ResponseEntity.ok(toResponse(ordenService.update(id, toOrden(orden))));
+    }
+
+    @Operation(
+        summary = "Actualizar orden parcialmente",
+        description = "Actualiza sólo los campos enviados",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Orden actualizada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "404", description = "Orden o usuario no encontrado", content = @Content(mediaType = "application/json"))
+    })
+    @RequireRole({"ADMIN"})
+    @PatchMapping("/{id}")
+    public ResponseEntity<OrdenResponse> partialUpdateOrden(
+            @Parameter(description = "ID de la orden", example = "1")
+            @PathVariable Integer id,
+            @org.springframework.web.bind.annotation.RequestBody OrdenRequest orden) {
+        return ResponseEntity.ok(toResponse(ordenService.partialUpdate(id, toOrden(orden))));
+    }
+
+    @Operation(
+        summary = "Cambiar el estado de una orden",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estado actualizado exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Estado vacío", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "404", description = "Orden no encontrada", content = @Content(mediaType = "application/json"))
+    })
+    @RequireRole({"ADMIN"})
+    @PatchMapping("/{id}/estado")
+    public ResponseEntity<OrdenResponse> updateEstado(
+            @Parameter(description = "ID de la orden", example = "1")
+            @PathVariable Integer id,
+            @Parameter(description = "Nuevo estado", example = "ENVIADA")
+            @RequestParam String estado) {
+        return ResponseEntity.ok(toResponse(ordenService.updateEstado(id, estado)));
+    }
+
+    @Operation(
+        summary = "Eliminar orden",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Orden eliminada exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Orden no encontrada", content = @Content(mediaType = "application/json"))
+    })
+    @RequireRole({"ADMIN"})
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteOrden(
+            @Parameter(description = "ID de la orden", example = "1")
+            @PathVariable Integer id) {
+        ordenService.deleteById(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+        summary = "Órdenes de un usuario",
+        description = "Un USER sólo puede ver sus propias órdenes",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Órdenes encontradas"),
+        @ApiResponse(responseCode = "404", description = "Usuario sin órdenes o inexistente", content = @Content(mediaType = "application/json"))
+    })
+    @RequireRole({"USER", "ADMIN"})
+    @GetMapping("/usuario/{idUsuario}")
+    public ResponseEntity<List<OrdenResponse>> getOrdenesByUsuario(
+            @Parameter(description = "ID del usuario", example = "1")
+            @PathVariable Integer idUsuario,
+            @Parameter(hidden = true)
+            @RequestAttribute(RoleCheckInterceptor.PRINCIPAL_ATTRIBUTE) TokenPrincipal principal) {
+        if (!idUsuario.equals(principal.usuarioId()) && !principal.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(ordenService.findByUsuario(idUsuario));
+    }
+
+    @Operation(
+        summary = "Resumen de órdenes de un usuario",
+        description = "Cantidad de órdenes, total gastado y fecha de la última orden (ceros si no tiene órdenes)",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resumen obtenido"),
+        @ApiResponse(responseCode = "404", description = "Usuario no encontrado", content = @Content(mediaType = "application/json"))
+    })
+    @RequireRole({"USER", "ADMIN"})
+    @GetMapping("/usuario/{idUsuario}/resumen")
+    public ResponseEntity<OrdenResumenUsuario> getResumenByUsuario(
+            @Parameter(description = "ID del usuario", example = "1")
+            @PathVariable Integer idUsuario,
+            @Parameter(hidden = true)
+            @RequestAttribute(RoleCheckInterceptor.PRINCIPAL_ATTRIBUTE) TokenPrincipal principal) {
+        if (!idUsuario.equals(principal.usuarioId()) && !principal.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(ordenService.findResumenByUsuario(idUsuario));
+    }
+
+    @Operation(
+        summary = "Órdenes por estado",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Órdenes encontradas"),
+        @ApiResponse(responseCode = "404", description = "No hay órdenes con ese estado", content = @Content(mediaType = "application/json"))
+    })
+    @RequireRole({"ADMIN"})
+    @GetMapping("/estado/{estado}")
+    public ResponseEntity<List<OrdenResponse>> getOrdenesByEstado(
+            @Parameter(description = "Estado de la orden", example = "PENDIENTE")
+            @PathVariable String estado) {
+        return ResponseEntity.ok(ordenService.findByEstado(estado));
+    }
+
+    @Operation(
+        summary = "Órdenes por rango de fechas",
+        description = "Órdenes con fecha entre desde y hasta (ambas incluidas)",
+        security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Órdenes encontradas"),
+        @ApiResponse(responseCode = "404", description = "No hay órdenes en el rango", content = @Content(mediaType = "application/json"))
+    })
+    @RequireRole({"ADMIN"})
+    @GetMapping("/fechas")
+    public ResponseEntity<List<OrdenResponse>> getOrdenesByRangoFechas(
+            @Parameter(description = "Fecha inicial", example = "2025-11-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final", example = "2025-11-30")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(ordenService.findByRangoFechas(desde, hasta));
+    }
+
+    // El usuario va sólo con su ID; OrdenService valida que exista
+    private static Orden toOrden(OrdenRequest request) {
+        Usuario usuario = null;
+        if (request.getIdUsuario() != null) {
+            usuario = new Usuario();
+            usuario.setIdUsuario(request.getIdUsuario());
+        }
+        return new Orden(null, usuario, request.getFechaOrden(), request.getEstado(),
+            request.getTotalOrden(), request.getDireccionEnvio());
+    }
+
+    private static OrdenResponse toResponse(Orden orden) {
+        return new OrdenResponse(
+            orden.getIdOrden(),
+            orden.getUsuario().getIdUsuario(),
+            orden.getFechaOrden(),
+            orden.getEstado(),
+            orden.getTotalOrden(),
+            orden.getDireccionEnvio()
+        );
+    }
+}
@@ -1,8 +1,11 @@
 package cl.huertohogar.usuario_backend.controller;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -10,16 +13,27 @@ import org.springframework.web.bind.annotation.RestController;
 
 import cl.huertohogar.usuario_backend.dto.AuthenticationRequest;
 import cl.huertohogar.usuario_backend.dto.AuthenticationResponse;
+import cl.huertohogar.usuario_backend.dto.EmailAvailabilityResponse;
 import cl.huertohogar.usuario_backend.dto.PasswordUpdateRequest;
 import cl.huertohogar.usuario_backend.dto.PasswordResetRequest;
 import cl.huertohogar.usuario_backend.dto.PasswordValidationRequest;
+import cl.huertohogar.usuario_backend.dto.TokenRefreshRequest;
+import cl.huertohogar.usuario_backend.dto.TokenRefreshResponse;
+import cl.huertohogar.usuario_backend.dto.UsuarioCredentials;
+import cl.huertohogar.usuario_backend.dto.UsuarioPageResponse;
 import cl.huertohogar.usuario_backend.dto.UsuarioResponse;
 import cl.huertohogar.usuario_backend.exception.AuthenticationFailedException;
+import cl.huertohogar.usuario_backend.exception.ServiceOverloadedException;
 import cl.huertohogar.usuario_backend.exception.UsuarioNotFoundException;
 import cl.huertohogar.usuario_backend.model.Usuario;
+import cl.huertohogar.usuario_backend.service.LoginThrottleService;
+import cl.huertohogar.usuario_backend.service.PasswordPolicyService;
+import cl.huertohogar.usuario_backend.service.RefreshTokenService;
 import cl.huertohogar.usuario_backend.service.UsuarioService;
 import cl.huertohogar.usuario_backend.config.RequireRole;
+import cl.huertohogar.usuario_backend.config.RoleCheckInterceptor;
 import cl.huertohogar.usuario_backend.util.JwtUtil;
+import cl.huertohogar.usuario_backend.util.TokenPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -29,6 +43,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -36,7 +51,8 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
-import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
 
 
 @RestController
@@ -50,6 +66,12 @@ public class UsuarioController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private LoginThrottleService loginThrottleService;
+
     @Operation(
         summary = "Crear un nuevo usuario",
         description = "Crea un nuevo usuario en el sistema con todos sus datos requeridos."
@@ -73,7 +95,7 @@ public class UsuarioController {
         ),
         @ApiResponse(
             responseCode = "409",
-            description = "El email ya está registrado en el sistema",
+            description = "El email o el RUT ya está registrado en el sistema",
             content = @Content(
                 mediaType = "application/json",
                 examples = @ExampleObject(value = "{\"timestamp\":\"2025-11-14T10:30:00\",\"message\":\"El email 'luisgonzalez@gmail.com' ya está registrado en el sistema\",\"status\":409}")
@@ -117,22 +139,20 @@ public class UsuarioController {
     }
 
     @Operation(
-        summary = "Listar todos los usuarios",
-        description = "Obtiene la lista completa de usuarios registrados en el sistema",
+        summary = "Listar usuarios (paginado)",
+        description = "Obtiene los usuarios ordenados por ID, de a una página. Para la página siguiente se envía el "
+            + "nextCursor de la respuesta anterior (con los mismos filtros); es null en la última página.",
         security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200",
-            description = "Lista de usuarios obtenida exitosamente"
+            description = "Página de usuarios obtenida exitosamente"
         ),
         @ApiResponse(
-            responseCode = "404",
-            description = "No se encontraron usuarios",
-            content = @Content(
-                mediaType = "application/json",
-                examples = @ExampleObject(value = "{\"timestamp\":\"2025-11-01T10:30:00\",\"message\":\"No se encontraron usuarios\",\"status\":404}")
-            )
+            responseCode = "400",
+            description = "Cursor inválido o tamaño de página fuera de rango",
+            content = @Content(mediaType = "application/json")
         ),
         @ApiResponse(
             responseCode = "401",
@@ -142,8 +162,20 @@ public class UsuarioController {
     })
     @RequireRole({"USER", "ADMIN"})
     @GetMapping("")
-    public ResponseEntity<List<Usuario>> getUsuarios() {
-        return ResponseEntity.ok(usuarioService.findAll());
+    public ResponseEntity<UsuarioPageResponse> getUsuarios(
+            @Parameter(description = "Cursor de la página siguiente (nextCursor de la respuesta anterior)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (por defecto 50, máximo 200)", example = "50")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Filtrar por rol", example = "ADMIN")
+            @RequestParam(required = false) String rol,
+            @Parameter(description = "Filtrar por región", example = "13")
+            @RequestParam(required = false) Integer idRegion,
+            @Parameter(description = "Registrados desde esta fecha (UTC, inclusive)", example = "2025-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate creadoDesde,
+            @Parameter(description = "Registrados hasta esta fecha (UTC, inclusive)", example = "2025-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate creadoHasta) {
+        return ResponseEntity.ok(usuarioService.findPage(cursor, limit, rol, idRegion, creadoDesde, creadoHasta));
     }
 
     @Operation(
@@ -169,30 +201,12 @@ public class UsuarioController {
     public ResponseEntity<Usuario> getUsuarioById(
             @Parameter(description = "ID del usuario a buscar", example = "1")
             @PathVariable Integer id,
-            @org.springframework.web.bind.annotation.RequestHeader(value = "Authorization", required = false) String authHeader) {
+            @Parameter(hidden = true)
+            @RequestAttribute(RoleCheckInterceptor.PRINCIPAL_ATTRIBUTE) TokenPrincipal principal) {
         
-        // Extraer el ID del usuario desde el token JWT
-        Integer tokenUsuarioId = null;
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            tokenUsuarioId = jwtUtil.extractUsuarioId(token);
-        }
-        
-        // Validar que el usuario pueda acceder a su propia información
-        // O que sea ADMIN (el interceptor ya validó el rol)
-        if (tokenUsuarioId != null && tokenUsuarioId.equals(id)) {
-            // El usuario está accediendo a su propia información
-            return ResponseEntity.ok(usuarioService.findById(id));
-        }
-        
-        // Si no coincide el ID, verificar que sea ADMIN
-        String rol = null;
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            rol = jwtUtil.extractRol(token);
-        }
-        
-        if ("ADMIN".equals(rol)) {
+        // El interceptor ya verificó el token; basta con consultar sus datos
+        // El usuario puede acceder a su propia información, o debe ser ADMIN
+        if (id.equals(principal.usuarioId()) || principal.isAdmin()) {
             return ResponseEntity.ok(usuarioService.findById(id));
         }
         
@@ -232,12 +246,10 @@ public class UsuarioController {
                 )
             )
             @org.springframework.web.bind.annotation.RequestBody Usuario usuario,
-            HttpServletRequest request) {
-            
-            String userRol = (String) request.getAttribute("userRol");
-            Integer usuarioId = (Integer) request.getAttribute("usuarioId");
+            @Parameter(hidden = true)
+            @RequestAttribute(RoleCheckInterceptor.PRINCIPAL_ATTRIBUTE) TokenPrincipal principal) {
 
-            if ("USER".equals(userRol) && !id.equals(usuarioId)) {
+            if ("USER".equals(principal.rol()) && !id.equals(principal.usuarioId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
@@ -269,12 +281,10 @@ public class UsuarioController {
                 )
             )
             @org.springframework.web.bind.annotation.RequestBody Usuario usuario,
-            HttpServletRequest request) {
-            
-            String userRol = (String) request.getAttribute("userRol");
-            Integer usuarioId = (Integer) request.getAttribute("usuarioId");
+            @Parameter(hidden = true)
+            @RequestAttribute(RoleCheckInterceptor.PRINCIPAL_ATTRIBUTE) TokenPrincipal principal) {
 
-            if ("USER".equals(userRol) && !id.equals(usuarioId)) {
+            if ("USER".equals(principal.rol()) && !id.equals(principal.usuarioId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
@@ -335,14 +345,27 @@ public class UsuarioController {
             responseCode = "401",
             description = "Credenciales inválidas",
             content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Demasiados intentos para el email o la IP (ver header Retry-After)",
+            content = @Content(mediaType = "application/json")
         )
     })
     @PostMapping("/authenticate")
     public ResponseEntity<?> authenticate(
-            @org.springframework.web.bind.annotation.RequestBody AuthenticationRequest request) {
+            @org.springframework.web.bind.annotation.RequestBody AuthenticationRequest request,
+            HttpServletRequest httpRequest) {
+        String clientIp = httpRequest.getRemoteAddr();
+        // Se limita antes de verificar la contraseña, para no gastar el pool de hash en intentos rechazados
+        loginThrottleService.acquire(request.getEmail(), clientIp);
         try {
-            Usuario usuario = usuarioService.authenticateByEmailOrThrow(request.getEmail(), request.getPassword());
-            String token = jwtUtil.generateToken(usuario.getIdUsuario(), usuario.getEmail(),usuario.getRol());
+            UsuarioCredentials credenciales = usuarioService.authenticateByEmailOrThrow(request.getEmail(), request.getPassword());
+            loginThrottleService.onSuccess(request.getEmail());
+            String token = jwtUtil.generateToken(credenciales.idUsuario(), credenciales.email(), credenciales.rol(), credenciales.tokenVersion());
+            String refreshToken = refreshTokenService.issue(credenciales.idUsuario());
+            // El perfil completo sólo se carga cuando la contraseña ya fue verificada
+            Usuario usuario = usuarioService.findProfileById(credenciales.idUsuario());
             
             AuthenticationResponse response = new AuthenticationResponse(
                 token,
@@ -358,18 +381,65 @@ public class UsuarioController {
                 usuario.getDireccion(),
                 usuario.getEmail(),
                 usuario.getTelefono(),
-                usuario.getRol()
+                usuario.getRol(),
+                refreshToken
             );
             return ResponseEntity.ok(response);
         } catch (AuthenticationFailedException e) {
+            loginThrottleService.onFailure(request.getEmail(), clientIp);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Credenciales inválidas");
         } catch (UsuarioNotFoundException e) {
+            loginThrottleService.onFailure(request.getEmail(), clientIp);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Credenciales inválidas");
+        } catch (ServiceOverloadedException e) {
+            throw e;  // 503 + Retry-After (GlobalExceptionHandler)
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Credenciales inválidas");
         }
     }
 
+    @Operation(
+        summary = "Renovar token de acceso",
+        description = "Cambia un refresh token válido por un nuevo token JWT de corta duración y un nuevo refresh token, sin volver a verificar la contraseña. " +
+                      "Cada refresh token sirve una sola vez: reutilizarlo invalida toda la sesión."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Token renovado exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = TokenRefreshResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Refresh token inválido, expirado o reutilizado",
+            content = @Content(
+                mediaType = "application/json",
+                examples = @ExampleObject(value = "{\"timestamp\":\"2025-11-14T10:30:00\",\"message\":\"Refresh token inválido\",\"status\":401}")
+            )
+        )
+    })
+    @PostMapping("/token/refresh")
+    public ResponseEntity<TokenRefreshResponse> refreshToken(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Refresh token vigente",
+                required = true,
+                content = @Content(
+                    schema = @Schema(implementation = TokenRefreshRequest.class),
+                    examples = @ExampleObject(
+                        value = "{\"refreshToken\":\"q3J0bW9rZW4tb3BhY28tZGUtZWplbXBsbw\"}"
+                    )
+                )
+            )
+            @org.springframework.web.bind.annotation.RequestBody TokenRefreshRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        Usuario usuario = rotation.usuario();
+        String token = jwtUtil.generateToken(usuario.getIdUsuario(), usuario.getEmail(), usuario.getRol(), usuario.getTokenVersion());
+        return ResponseEntity.ok(new TokenRefreshResponse(token, rotation.refreshToken()));
+    }
+
     @Operation(
         summary = "Cambiar contraseña",
         description = "Cambia la contraseña de un usuario. Requiere la contraseña anterior para validación."
@@ -441,9 +511,32 @@ public class UsuarioController {
         return ResponseEntity.ok("Contraseña reseteada exitosamente");
     }
 
+    @Operation(
+        summary = "Verificar disponibilidad de email",
+        description = "Indica si un email está libre para registrarse. Endpoint público pensado para validar mientras el usuario escribe: " +
+                      "la mayoría de las consultas se responden en memoria sin ir a la base de datos."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Consulta realizada",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = EmailAvailabilityResponse.class)
+            )
+        ),
+        @ApiResponse(responseCode = "400", description = "Email vacío")
+    })
+    @GetMapping("/email-disponible")
+    public ResponseEntity<EmailAvailabilityResponse> isEmailAvailable(
+            @Parameter(description = "Email a consultar", example = "juan.perez@email.com")
+            @RequestParam String email) {
+        return ResponseEntity.ok(new EmailAvailabilityResponse(email, usuarioService.isEmailAvailable(email)));
+    }
+
     @Operation(
         summary = "Validar formato de contraseña",
-        description = "Verifica si una contraseña cumple con los requisitos de seguridad"
+        description = "Verifica si una contraseña cumple con los requisitos de seguridad, estima su fortaleza (entropía) y si aparece en filtraciones conocidas"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Validación completada")
@@ -461,9 +554,9 @@ public class UsuarioController {
                 )
             )
             @org.springframework.web.bind.annotation.RequestBody PasswordValidationRequest request) {
-        boolean isValid = usuarioService.isValidPassword(request.getPassword());
-        String strength = usuarioService.getPasswordStrength(request.getPassword());
-        return ResponseEntity.ok("Válida: " + isValid + ", Fortaleza: " + strength);
+        PasswordPolicyService.Evaluation evaluacion = usuarioService.evaluatePassword(request.getPassword());
+        return ResponseEntity.ok(String.format(Locale.ROOT, "Válida: %s, Fortaleza: %s, Entropía: %.1f bits, Filtrada: %s",
+            evaluacion.valid(), evaluacion.strength(), evaluacion.entropyBits(), evaluacion.breached()));
     }
 
     @Operation(summary = "Promover usuario a ADMIN (solo ADMIN)")
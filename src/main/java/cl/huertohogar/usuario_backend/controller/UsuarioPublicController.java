@@ -1,17 +1,23 @@
 package cl.huertohogar.usuario_backend.controller;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import cl.huertohogar.usuario_backend.model.Usuario;
-import cl.huertohogar.usuario_backend.service.UsuarioService;
+import cl.huertohogar.usuario_backend.exception.UsuarioNotFoundException;
+import cl.huertohogar.usuario_backend.exception.UsuarioNotValidException;
+import cl.huertohogar.usuario_backend.service.PublicNameService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -26,7 +32,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class UsuarioPublicController {
 
     @Autowired
-    private UsuarioService usuarioService;
+    private PublicNameService publicNameService;
+
+    // Máximo de ids por consulta en lote
+    @Value("${usuario.public-nombres.max-ids:100}")
+    private int maxIds;
+
+    // Segundos de Cache-Control (público: los nombres se pueden guardar en un CDN o proxy compartido)
+    @Value("${usuario.public-nombres.cache-max-age:60}")
+    private long cacheMaxAge;
 
     @Operation(
         summary = "Obtener primer nombre del usuario", 
@@ -39,9 +53,43 @@ public class UsuarioPublicController {
     @GetMapping("/{id}/nombre")
     public ResponseEntity<Map<String, String>> getUsuarioNombre(
             @Parameter(description = "ID del usuario", example = "1") 
-            @PathVariable Integer id) {
+            @PathVariable int id) {
         
-        Usuario usuario = usuarioService.findById(id);
-        return ResponseEntity.ok(Collections.singletonMap("nombre", usuario.getNombre()));
+        String nombre = publicNameService.findNombre(id);
+        if (nombre == null) {
+            throw new UsuarioNotFoundException("Usuario no encontrado con id: " + id);
+        }
+        return ResponseEntity.ok()
+            .cacheControl(publicCache())
+            .body(Collections.singletonMap("nombre", nombre));
+    }
+
+    @Operation(
+        summary = "Obtener primeros nombres de varios usuarios",
+        description = "Retorna un mapa id -> primer nombre para los IDs indicados (por ejemplo, los autores de una página de comentarios). "
+            + "Los IDs inexistentes se omiten. Endpoint público."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Nombres encontrados"),
+        @ApiResponse(responseCode = "400", description = "Sin IDs o más IDs que el máximo permitido")
+    })
+    @GetMapping("/nombres")
+    public ResponseEntity<Map<Integer, String>> getUsuarioNombres(
+            @Parameter(description = "IDs de usuario separados por coma", example = "1,2,3")
+            @RequestParam List<Integer> ids) {
+
+        if (ids.isEmpty()) {
+            throw new UsuarioNotValidException("Debe indicar al menos un ID");
+        }
+        if (ids.size() > maxIds) {
+            throw new UsuarioNotValidException("Se pueden consultar como máximo " + maxIds + " IDs por solicitud");
+        }
+        return ResponseEntity.ok()
+            .cacheControl(publicCache())
+            .body(publicNameService.findNombres(ids));
+    }
+
+    private CacheControl publicCache() {
+        return CacheControl.maxAge(Duration.ofSeconds(cacheMaxAge)).cachePublic();
     }
 }
@@ -54,4 +54,7 @@ public class AuthenticationResponse {
     
     @Schema(description = "Rol del usuario", example = "USER", allowableValues = {"USER", "ADMIN"})
     private String rol;
+
+    @Schema(description = "Refresh token opaco para obtener nuevos tokens en /api/v1/usuarios/token/refresh", example = "q3J0bW9rZW4tb3BhY28tZGUtZWplbXBsbw")
+    private String refreshToken;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package cl.huertohogar.usuario_backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Response de disponibilidad de email para registro")
+public class EmailAvailabilityResponse {
+
+    @Schema(description = "Email consultado", example = "juan.perez@email.com")
+    private String email;
+
+    @Schema(description = "true si el email no está registrado", example = "true")
+    private boolean disponible;
+
+}
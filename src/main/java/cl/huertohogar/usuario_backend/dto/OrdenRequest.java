@@ -0,0 +1,32 @@
+package cl.huertohogar.usuario_backend.dto;
+
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Datos de una orden a crear o modificar: el usuario se indica por su ID
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Datos de una orden de compra")
+public class OrdenRequest {
+
+    @Schema(description = "ID del usuario que realizó la orden", example = "1")
+    private Integer idUsuario;
+
+    @Schema(description = "Fecha de la orden (hoy si no se indica al crear)", example = "2025-11-10")
+    private LocalDate fechaOrden;
+
+    @Schema(description = "Estado de la orden", example = "PENDIENTE")
+    private String estado;
+
+    @Schema(description = "Total de la orden en pesos chilenos", example = "45990.50")
+    private Double totalOrden;
+
+    @Schema(description = "Dirección de envío", example = "Av. Providencia 456, Santiago")
+    private String direccionEnvio;
+
+}
@@ -0,0 +1,35 @@
+package cl.huertohogar.usuario_backend.dto;
+
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Proyección de una orden para listados: trae el id del usuario (la columna FK), no el usuario completo
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Orden de compra con el ID del usuario (sin sus datos)")
+public class OrdenResponse {
+
+    @Schema(description = "ID de la orden", example = "1")
+    private Integer idOrden;
+
+    @Schema(description = "ID del usuario que realizó la orden", example = "1")
+    private Integer idUsuario;
+
+    @Schema(description = "Fecha de la orden", example = "2025-11-10")
+    private LocalDate fechaOrden;
+
+    @Schema(description = "Estado de la orden", example = "PENDIENTE")
+    private String estado;
+
+    @Schema(description = "Total de la orden en pesos chilenos", example = "45990.50")
+    private Double totalOrden;
+
+    @Schema(description = "Dirección de envío", example = "Av. Providencia 456, Santiago")
+    private String direccionEnvio;
+
+}
@@ -0,0 +1,17 @@
+package cl.huertohogar.usuario_backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request para renovar el token de acceso")
+public class TokenRefreshRequest {
+
+    @Schema(description = "Refresh token entregado en el login o en la renovación anterior", example = "q3J0bW9rZW4tb3BhY28tZGUtZWplbXBsbw")
+    private String refreshToken;
+
+}
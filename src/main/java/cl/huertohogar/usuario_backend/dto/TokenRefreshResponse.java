@@ -0,0 +1,20 @@
+package cl.huertohogar.usuario_backend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Response de renovación con un nuevo token de acceso y un nuevo refresh token")
+public class TokenRefreshResponse {
+
+    @Schema(description = "Nuevo token JWT de corta duración", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
+    private String token;
+
+    @Schema(description = "Nuevo refresh token (el anterior queda invalidado)", example = "q3J0bW9rZW4tb3BhY28tZGUtZWplbXBsbw")
+    private String refreshToken;
+
+}
@@ -0,0 +1,13 @@
+package cl.huertohogar.usuario_backend.dto;
+
+import java.time.Instant;
+
+// Proyección mínima para sincronizar las épocas de tokens (sin cargar la entidad Usuario)
+public interface TokenVersionView {
+
+    Integer getIdUsuario();
+
+    Integer getTokenVersion();
+
+    Instant getTokenVersionUpdatedAt();
+}
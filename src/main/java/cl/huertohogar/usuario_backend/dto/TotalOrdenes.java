@@ -0,0 +1,5 @@
+package cl.huertohogar.usuario_backend.dto;
+
+// Cantidad y suma de órdenes calculadas en la base (SELECT COUNT(*), SUM(total_orden))
+public record TotalOrdenes(long cantidad, double total) {
+}
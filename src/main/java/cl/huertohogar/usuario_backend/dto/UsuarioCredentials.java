@@ -0,0 +1,6 @@
+package cl.huertohogar.usuario_backend.dto;
+
+// Proyección mínima para el login: sólo lo necesario para verificar la contraseña y emitir el token.
+// No es una entidad administrada, así que no entra al persistence context ni a la verificación de cambios.
+public record UsuarioCredentials(Integer idUsuario, String email, String passwordHashed, String rol, Integer tokenVersion) {
+}
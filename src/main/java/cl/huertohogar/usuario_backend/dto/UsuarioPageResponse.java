@@ -0,0 +1,26 @@
+package cl.huertohogar.usuario_backend.dto;
+
+import java.util.List;
+
+import cl.huertohogar.usuario_backend.model.Usuario;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de usuarios ordenada por ID")
+public class UsuarioPageResponse {
+
+    @Schema(description = "Usuarios de la página")
+    private List<Usuario> usuarios;
+
+    @Schema(description = "Cursor opaco para pedir la página siguiente (null si es la última)", example = "aWQ6NTA")
+    private String nextCursor;
+
+    @Schema(description = "Tamaño de página aplicado", example = "50")
+    private int limit;
+
+}
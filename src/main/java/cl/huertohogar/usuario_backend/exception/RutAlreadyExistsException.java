@@ -0,0 +1,7 @@
+package cl.huertohogar.usuario_backend.exception;
+
+public class RutAlreadyExistsException extends RuntimeException {
+    public RutAlreadyExistsException(String message) {
+        super(message);
+    }
+}
@@ -2,24 +2,33 @@ package cl.huertohogar.usuario_backend.model;
 
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "orden")
+@Table(name = "orden", indexes = {
+    // Órdenes de un usuario y su fecha más reciente (listado por usuario y resumen tras borrar una orden)
+    @Index(name = "idx_orden_usuario_fecha", columnList = "id_usuario, fecha_orden")
+})
 @Schema(description = "Entidad que representa una orden de compra realizada por un usuario")
 public class Orden {
 
@@ -29,8 +38,12 @@ public class Orden {
     @Schema(description = "Identificador único de la orden", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Integer idOrden;
 
-    @ManyToOne
+    // Lazy: los listados y la API usan OrdenResponse (sólo idUsuario, desde la columna id_usuario)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_usuario", nullable = false)
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @Schema(description = "Usuario que realiza la orden", required = true, implementation = Usuario.class)
     private Usuario usuario;
 
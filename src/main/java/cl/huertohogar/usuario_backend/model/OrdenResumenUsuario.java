@@ -0,0 +1,40 @@
+package cl.huertohogar.usuario_backend.model;
+
+import java.time.LocalDate;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Totales de órdenes por usuario, mantenidos por OrdenService en la misma transacción que cada alta,
+// cambio o baja de orden. El perfil muestra el gasto histórico con una lectura por llave primaria.
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "orden_resumen_usuario")
+@Schema(description = "Resumen de órdenes de un usuario")
+public class OrdenResumenUsuario {
+
+    @Id
+    @Column(name = "id_usuario", nullable = false)
+    @Schema(description = "ID del usuario", example = "1")
+    private Integer idUsuario;
+
+    @Column(name = "cantidad_ordenes", nullable = false)
+    @Schema(description = "Cantidad de órdenes", example = "12")
+    private Long cantidadOrdenes;
+
+    @Column(name = "total_gastado", nullable = false)
+    @Schema(description = "Suma de los totales de sus órdenes", example = "251980.5")
+    private Double totalGastado;
+
+    @Column(name = "ultima_orden", nullable = true)
+    @Schema(description = "Fecha de la orden más reciente", example = "2025-11-10")
+    private LocalDate ultimaOrden;
+}
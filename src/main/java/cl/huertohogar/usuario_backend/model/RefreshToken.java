@@ -0,0 +1,52 @@
+package cl.huertohogar.usuario_backend.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Refresh token opaco. Sólo se guarda el hash SHA-256; el token en claro se entrega una única vez al cliente.
+// Todos los tokens obtenidos por rotación desde un mismo login comparten family_id (para detectar reuso).
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "refresh_token", indexes = {
+    @Index(name = "idx_refresh_token_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_refresh_token_family_id", columnList = "family_id")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_refresh_token", nullable = false)
+    private Long idRefreshToken;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_usuario", nullable = false)
+    private Usuario usuario;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked", nullable = false)
+    private boolean revoked;
+}
@@ -1,20 +1,37 @@
 package cl.huertohogar.usuario_backend.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuario")
+@Table(name = "usuario", indexes = {
+    @Index(name = "idx_usuario_token_version_updated_at", columnList = "token_version_updated_at"),
+    // Listado paginado por id_usuario con filtros (keyset: WHERE filtro AND id_usuario > ? ORDER BY id_usuario)
+    @Index(name = "idx_usuario_rol_id", columnList = "rol, id_usuario"),
+    @Index(name = "idx_usuario_region_id", columnList = "id_region, id_usuario"),
+    @Index(name = "idx_usuario_fecha_creacion", columnList = "fecha_creacion")
+})
 @Schema(description = "Entidad que representa un usuario")
 public class Usuario {
     
@@ -76,6 +93,18 @@ public class Usuario {
     @Schema(description = "Rol del usuario: USER, ADMIN", example = "USER", accessMode = Schema.AccessMode.READ_ONLY)
     private String rol = "USER";
 
+    // Época de tokens: se incrementa al cambiar rol o contraseña; los JWT con una época menor quedan revocados
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    private Integer tokenVersion = 0;
+
+    @Column(name = "token_version_updated_at", nullable = true)
+    private Instant tokenVersionUpdatedAt;
+
+    // Null en usuarios registrados antes de que existiera la columna
+    @Column(name = "fecha_creacion", nullable = true, updatable = false)
+    @Schema(description = "Fecha y hora de registro", accessMode = Schema.AccessMode.READ_ONLY)
+    private Instant fechaCreacion;
+
     // Getters y Setters con @JsonProperty para mapeo correcto
     
     public Integer getIdUsuario() {
@@ -202,4 +231,31 @@ public class Usuario {
     public void setRol(String rol) {
         this.rol = rol;
     }
+
+    @JsonIgnore
+    public Integer getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
+    @JsonIgnore
+    public Instant getTokenVersionUpdatedAt() {
+        return tokenVersionUpdatedAt;
+    }
+
+    public void setTokenVersionUpdatedAt(Instant tokenVersionUpdatedAt) {
+        this.tokenVersionUpdatedAt = tokenVersionUpdatedAt;
+    }
+
+    @JsonProperty(value = "fechaCreacion", access = JsonProperty.Access.READ_ONLY)
+    public Instant getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(Instant fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
 }
@@ -14,5 +14,9 @@ public interface CiudadRepository extends JpaRepository<Ciudad, Integer> {
 
     @Query(value = "SELECT * FROM ciudad WHERE id_region = ?1", nativeQuery = true)
     List<Ciudad> findByIdRegion(Integer idRegion);
+
+    // Todas las ciudades con su región en una sola consulta (para la copia en memoria)
+    @Query("SELECT c FROM Ciudad c JOIN FETCH c.region")
+    List<Ciudad> findAllWithRegion();
     
 }
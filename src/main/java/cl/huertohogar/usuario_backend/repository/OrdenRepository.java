@@ -6,17 +6,33 @@ import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import cl.huertohogar.usuario_backend.dto.OrdenResponse;
+import cl.huertohogar.usuario_backend.dto.TotalOrdenes;
 import cl.huertohogar.usuario_backend.model.Orden;
 
 public interface OrdenRepository extends JpaRepository<Orden, Integer> {
 
+    // Listados como proyección: o.usuario.idUsuario se resuelve con la columna id_usuario, sin JOIN a usuario
+    String RESUMEN = "SELECT new cl.huertohogar.usuario_backend.dto.OrdenResponse("
+        + "o.idOrden, o.usuario.idUsuario, o.fechaOrden, o.estado, o.totalOrden, o.direccionEnvio) FROM Orden o ";
+
     @Query(value = "SELECT * FROM orden WHERE id_orden = ?1", nativeQuery = true)
     List<Orden> findByIdOrden(Integer idOrden);
 
-    List<Orden> findByUsuarioIdUsuario(Integer idUsuario);
-    
-    List<Orden> findByEstado(String estado);
-    
-    List<Orden> findByFechaOrdenBetween(LocalDate fechaInicio, LocalDate fechaFin);
+    @Query("SELECT new cl.huertohogar.usuario_backend.dto.TotalOrdenes(COUNT(o), COALESCE(SUM(o.totalOrden), 0.0)) "
+        + "FROM Orden o WHERE o.usuario.idUsuario = ?1")
+    TotalOrdenes totalByUsuario(Integer idUsuario);
+
+    @Query(RESUMEN + "ORDER BY o.idOrden")
+    List<OrdenResponse> findAllResumen();
+
+    @Query(RESUMEN + "WHERE o.usuario.idUsuario = ?1 ORDER BY o.idOrden")
+    List<OrdenResponse> findResumenByUsuario(Integer idUsuario);
+
+    @Query(RESUMEN + "WHERE o.estado = ?1 ORDER BY o.idOrden")
+    List<OrdenResponse> findResumenByEstado(String estado);
+
+    @Query(RESUMEN + "WHERE o.fechaOrden BETWEEN ?1 AND ?2 ORDER BY o.idOrden")
+    List<OrdenResponse> findResumenByFechaOrdenBetween(LocalDate fechaInicio, LocalDate fechaFin);
 
 }
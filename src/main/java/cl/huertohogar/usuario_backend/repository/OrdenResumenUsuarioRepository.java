@@ -0,0 +1,9 @@
+package cl.huertohogar.usuario_backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import cl.huertohogar.usuario_backend.model.OrdenResumenUsuario;
+
+public interface OrdenResumenUsuarioRepository extends JpaRepository<OrdenResumenUsuario, Integer> {
+
+}
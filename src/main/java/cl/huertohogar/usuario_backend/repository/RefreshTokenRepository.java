@@ -0,0 +1,49 @@
+package cl.huertohogar.usuario_backend.repository;
+
+import java.time.Instant;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+
+import cl.huertohogar.usuario_backend.model.RefreshToken;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Token + usuario en una sola consulta (por el índice único de token_hash)
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.usuario WHERE r.tokenHash = ?1")
+    RefreshToken findByTokenHashWithUsuario(String tokenHash);
+
+    // Marca el token como usado sólo si aún no lo estaba (0 filas = ya fue usado/revocado)
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.idRefreshToken = ?1 AND r.revoked = false")
+    int markUsed(Long idRefreshToken);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = ?1 AND r.revoked = false")
+    int revokeFamily(String familyId);
+
+    // Declara que sólo toca refresh_token: así Hibernate no vacía el cache de segundo nivel completo
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_token"))
+    @Query(value = "UPDATE refresh_token SET revoked = true WHERE id_usuario = ?1 AND revoked = false", nativeQuery = true)
+    int revokeAllByUsuario(Integer idUsuario);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_token"))
+    @Query(value = "DELETE FROM refresh_token WHERE id_usuario = ?1", nativeQuery = true)
+    int deleteAllByUsuario(Integer idUsuario);
+
+    // Borra un lote de tokens expirados (usa el índice de expires_at)
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "refresh_token"))
+    @Query(value = "DELETE FROM refresh_token WHERE id_refresh_token IN "
+        + "(SELECT id_refresh_token FROM refresh_token WHERE expires_at < ?1 LIMIT ?2)", nativeQuery = true)
+    int deleteExpiredBatch(Instant now, int batchSize);
+}
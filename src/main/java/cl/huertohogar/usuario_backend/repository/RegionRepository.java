@@ -1,17 +1,29 @@
 package cl.huertohogar.usuario_backend.repository;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.QueryHint;
 
 import cl.huertohogar.usuario_backend.model.Region;
 
 public interface RegionRepository extends JpaRepository<Region, Integer> {
 
-    // Buscar región por nombre
+    // Buscar región por nombre (query cache; se invalida con cualquier escritura en region)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "region")
+    })
     @Query(value = "SELECT * FROM region WHERE nombre_region = ?1", nativeQuery = true)
     Region findByNombreRegion(String nombreRegion);
 
     // Verificar si existe una región por nombre
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "region")
+    })
     @Query(value = "SELECT CASE WHEN COUNT(*) > 0 THEN true ELSE false END FROM region WHERE nombre_region = ?1", nativeQuery = true)
     boolean existsByNombreRegion(String nombreRegion);
 
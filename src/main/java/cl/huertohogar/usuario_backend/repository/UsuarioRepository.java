@@ -1,10 +1,14 @@
 package cl.huertohogar.usuario_backend.repository;
 
+import java.time.Instant;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import cl.huertohogar.usuario_backend.dto.TokenVersionView;
+import cl.huertohogar.usuario_backend.dto.UsuarioCredentials;
 import cl.huertohogar.usuario_backend.model.Usuario;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
@@ -18,10 +22,22 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
     @Query(value = "SELECT * FROM Usuario WHERE email = ?1", nativeQuery = true)
     Usuario findByEmail(String email);
 
-    @Query(value = "SELECT COUNT(*) > 0 FROM Usuario WHERE email = ?1", nativeQuery = true)
-    boolean existsByEmail(String email);
+    // Credenciales para el login, sin distinguir mayúsculas (usa el índice único uk_usuario_email_lower, ver schema.sql)
+    @Transactional(readOnly = true)
+    @Query("SELECT new cl.huertohogar.usuario_backend.dto.UsuarioCredentials(u.idUsuario, u.email, u.passwordHashed, u.rol, u.tokenVersion) "
+        + "FROM Usuario u WHERE lower(u.email) = lower(?1)")
+    List<UsuarioCredentials> findCredentialsByEmail(String email);
+
+    // Misma comparación que el login y el índice único uk_usuario_email_lower (que la resuelve)
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM usuario WHERE lower(email) = lower(?1))", nativeQuery = true)
+    boolean existsByEmailIgnoreCase(String email);
 
     // Buscar por Apellido Paterno
     @Query(value = "SELECT * FROM Usuario WHERE id_a_paterno = ?1", nativeQuery = true)
     List<Usuario> findByAPaterno(Integer idAPaterno);
+
+    // Épocas de tokens modificadas desde un instante (usa el índice de token_version_updated_at)
+    @Query("SELECT u.idUsuario AS idUsuario, u.tokenVersion AS tokenVersion, u.tokenVersionUpdatedAt AS tokenVersionUpdatedAt "
+        + "FROM Usuario u WHERE u.tokenVersionUpdatedAt > ?1")
+    List<TokenVersionView> findTokenVersionsChangedSince(Instant since);
 }
@@ -0,0 +1,249 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import cl.huertohogar.usuario_backend.model.Ciudad;
+import cl.huertohogar.usuario_backend.model.Region;
+import cl.huertohogar.usuario_backend.model.Usuario;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+// Invalidación de caches entre nodos con LISTEN/NOTIFY de PostgreSQL (sin infraestructura adicional).
+// Las escrituras de UsuarioService, RegionService y CiudadService publican "<nodo>:<entidad>:<id>" dentro de su
+// transacción; PostgreSQL entrega el mensaje sólo si la transacción confirma. Cada nodo mantiene una conexión
+// propia (fuera del pool de Hikari) escuchando el canal, y al recibir un cambio de otro nodo saca la entidad del
+// cache de segundo nivel y actualiza las copias locales (regiones/ciudades, nombres públicos, filtro de emails,
+// épocas de tokens).
+// Si la conexión se cae se reconecta y, como pudo perder mensajes, se resincroniza todo.
+@Service
+public class CacheInvalidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    public static final String USUARIO = "usuario";
+    public static final String REGION = "region";
+    public static final String CIUDAD = "ciudad";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private EmailAvailabilityService emailAvailabilityService;
+
+    @Autowired
+    private TokenEpochService tokenEpochService;
+
+    @Autowired
+    private PublicNameService publicNameService;
+
+    @Autowired
+    private PublicNameDirectory publicNameDirectory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.invalidation.channel:cache_invalidation}")
+    private String channel;
+
+    // Espera máxima (ms) por mensajes antes de comprobar que la conexión sigue viva
+    @Value("${cache.invalidation.poll-timeout:10000}")
+    private int pollTimeout;
+
+    @Value("${cache.invalidation.reconnect-delay:5000}")
+    private long reconnectDelay;
+
+    // Identifica los mensajes de este nodo (su estado local ya se actualizó al confirmar)
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread listener;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Canal de invalidación inválido: " + channel);
+        }
+        meterRegistry.gauge("cache.invalidation.connected", this, s -> s.connected ? 1 : 0);
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    // Avisar al resto de los nodos que la entidad cambió o se borró. Dentro de una transacción el
+    // aviso sale recién al confirmar (y se descarta si hay rollback).
+    public void publish(String entity, Integer id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, nodeId + ":" + entity + ":" + id);
+        meterRegistry.counter("cache.invalidation.sent", "entity", entity).increment();
+    }
+
+    private void listen() {
+        boolean firstConnection = true;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                connected = true;
+                log.info("Escuchando invalidaciones de cache en el canal '{}' (nodo {})", channel, nodeId);
+                if (!firstConnection) {
+                    resyncAll();
+                }
+                firstConnection = false;
+                poll(connection);
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Conexión de invalidación de cache caída, reintentando en {} ms", reconnectDelay, e);
+                }
+            } finally {
+                connected = false;
+            }
+            sleep(reconnectDelay);
+        }
+    }
+
+    private void poll(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (PreparedStatement usuarioActual = connection.prepareStatement(
+                "SELECT email, token_version, nombre FROM usuario WHERE id_usuario = ?");
+             Statement ping = connection.createStatement()) {
+            while (running) {
+                PGNotification[] notifications = pgConnection.getNotifications(pollTimeout);
+                if (notifications == null || notifications.length == 0) {
+                    ping.execute("SELECT 1");  // detecta una conexión muerta aunque no lleguen mensajes
+                    continue;
+                }
+                boolean referenceChanged = false;
+                for (PGNotification notification : notifications) {
+                    referenceChanged |= handle(notification.getParameter(), usuarioActual);
+                }
+                // Un lote de cambios en regiones/ciudades se resuelve con una sola recarga
+                if (referenceChanged) {
+                    referenceDataService.reload();
+                }
+            }
+        }
+    }
+
+    // Aplica un mensaje de otro nodo; true si cambiaron datos de referencia
+    private boolean handle(String payload, PreparedStatement usuarioActual) throws SQLException {
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return false;
+        }
+        Integer id;
+        try {
+            id = Integer.valueOf(parts[2]);
+        } catch (NumberFormatException e) {
+            log.warn("Mensaje de invalidación inválido: {}", payload);
+            return false;
+        }
+        meterRegistry.counter("cache.invalidation.received", "entity", parts[1]).increment();
+
+        Cache cache = entityManagerFactory.getCache();
+        switch (parts[1]) {
+            case USUARIO -> {
+                cache.evict(Usuario.class, id);
+                publicNameService.evict(id);
+                // El email nuevo debe entrar al filtro de Bloom, la época de tokens debe verse de inmediato
+                // y el directorio de nombres debe reflejar el alta, el cambio o la baja
+                usuarioActual.setInt(1, id);
+                try (ResultSet rs = usuarioActual.executeQuery()) {
+                    if (rs.next()) {
+                        emailAvailabilityService.add(rs.getString(1));
+                        tokenEpochService.observe(id, rs.getInt(2));
+                        publicNameDirectory.put(id, rs.getString(3));
+                    } else {
+                        publicNameDirectory.remove(id);
+                    }
+                }
+                return false;
+            }
+            case REGION -> {
+                cache.evict(Region.class, id);
+                // Las consultas cacheadas por nombre de región sólo se invalidan solas con escrituras locales
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+                return true;
+            }
+            case CIUDAD -> {
+                cache.evict(Ciudad.class, id);
+                return true;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    // Tras una reconexión: se descarta todo lo cacheado y se recargan las copias locales
+    private void resyncAll() {
+        Cache cache = entityManagerFactory.getCache();
+        cache.evict(Usuario.class);
+        cache.evict(Region.class);
+        cache.evict(Ciudad.class);
+        publicNameService.evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        referenceDataService.reload();
+        tokenEpochService.refresh();
+        emailAvailabilityService.rebuild();
+        publicNameDirectory.reload();
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
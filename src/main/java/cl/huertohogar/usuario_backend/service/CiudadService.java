@@ -9,6 +9,7 @@ import cl.huertohogar.usuario_backend.exception.CiudadNotFoundException;
 import cl.huertohogar.usuario_backend.exception.CiudadNotValidException;
 import cl.huertohogar.usuario_backend.model.Ciudad;
 import cl.huertohogar.usuario_backend.repository.CiudadRepository;
+import cl.huertohogar.usuario_backend.util.PrecompressedJson;
 import jakarta.transaction.Transactional;
 
 @Service
@@ -18,6 +19,17 @@ public class CiudadService {
     @Autowired
     private CiudadRepository ciudadRepository;
 
+    // Lecturas desde la copia en memoria; las escrituras la actualizan al confirmar
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private ReferenceDataResponses referenceDataResponses;
+
+    // Avisa a los demás nodos para que actualicen su copia
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
     // CREATE 
     public Ciudad save(Ciudad ciudad) {
         if (ciudad == null) {
@@ -29,27 +41,50 @@ public class CiudadService {
         if (ciudad.getRegion() == null) {
             throw new CiudadNotValidException("La región de la ciudad es obligatoria");
         }
-        return ciudadRepository.save(ciudad);
+        Ciudad guardada = ciudadRepository.save(ciudad);
+        referenceDataService.ciudadSaved(guardada);
+        cacheInvalidationService.publish(CacheInvalidationService.CIUDAD, guardada.getIdCiudad());
+        return guardada;
     }
 
     // READ 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public List<Ciudad> findAll() {
-        List<Ciudad> ciudades = ciudadRepository.findAll();
+        List<Ciudad> ciudades = referenceDataService.current().ciudades();
         if (ciudades.isEmpty()) {
             throw new CiudadNotFoundException("No se encontraron ciudades");
         }
         return ciudades;
     }
 
+    // READ - Misma lista ya serializada a JSON y comprimida (GET sin pasar por Jackson)
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public PrecompressedJson findAllJson() {
+        if (referenceDataService.current().ciudades().isEmpty()) {
+            throw new CiudadNotFoundException("No se encontraron ciudades");
+        }
+        return referenceDataResponses.ciudades();
+    }
+
     // READ por ID
+    @Transactional(Transactional.TxType.SUPPORTS)
     public Ciudad findById(Integer id) {
+        Ciudad ciudad = referenceDataService.current().ciudad(id);
+        if (ciudad == null) {
+            throw new CiudadNotFoundException("Ciudad no encontrada con id: " + id);
+        }
+        return ciudad;
+    }
+
+    // Entidad administrada, para modificarla o borrarla
+    private Ciudad findEntityById(Integer id) {
         return ciudadRepository.findById(id)
             .orElseThrow(() -> new CiudadNotFoundException("Ciudad no encontrada con id: " + id));
     }
 
     // UPDATE 
     public Ciudad update(Integer id, Ciudad ciudadActualizada) {
-        Ciudad ciudadExistente = findById(id);
+        Ciudad ciudadExistente = findEntityById(id);
         
         // Validaciones
         if (ciudadActualizada.getNombreCiudad() == null || ciudadActualizada.getNombreCiudad().trim().isEmpty()) {
@@ -63,12 +98,15 @@ public class CiudadService {
         ciudadExistente.setNombreCiudad(ciudadActualizada.getNombreCiudad());
         ciudadExistente.setRegion(ciudadActualizada.getRegion());
 
-        return ciudadRepository.save(ciudadExistente);
+        Ciudad guardada = ciudadRepository.save(ciudadExistente);
+        referenceDataService.ciudadSaved(guardada);
+        cacheInvalidationService.publish(CacheInvalidationService.CIUDAD, guardada.getIdCiudad());
+        return guardada;
     }
 
     // PATCH 
     public Ciudad partialUpdate(Integer id, Ciudad ciudadActualizada) {
-        Ciudad ciudadExistente = findById(id);
+        Ciudad ciudadExistente = findEntityById(id);
         
         // Solo actualiza los campos que no son nulos
         if (ciudadActualizada.getIdCiudad() != null) {
@@ -89,20 +127,26 @@ public class CiudadService {
             ciudadExistente.setRegion(ciudadActualizada.getRegion());
         }
 
-        return ciudadRepository.save(ciudadExistente);
+        Ciudad guardada = ciudadRepository.save(ciudadExistente);
+        referenceDataService.ciudadSaved(guardada);
+        cacheInvalidationService.publish(CacheInvalidationService.CIUDAD, guardada.getIdCiudad());
+        return guardada;
     }
 
     // DELETE 
     public void deleteById(Integer id) {
-        Ciudad ciudad = findById(id);
+        Ciudad ciudad = findEntityById(id);
         ciudadRepository.delete(ciudad);
+        referenceDataService.ciudadDeleted(id);
+        cacheInvalidationService.publish(CacheInvalidationService.CIUDAD, id);
     }
 
     // CONSULTAS PERSONALIZADAS
     
     // Buscar ciudades por región (excepción si no hay ciudades en región)
+    @Transactional(Transactional.TxType.SUPPORTS)
     public List<Ciudad> findByIdRegion(Integer idRegion) {
-        List<Ciudad> ciudades = ciudadRepository.findByIdRegion(idRegion);
+        List<Ciudad> ciudades = referenceDataService.current().ciudadesDeRegion(idRegion);
         if (ciudades.isEmpty()) {
             throw new CiudadNotFoundException("No se encontraron ciudades para la región con id: " + idRegion);
         }
@@ -110,8 +154,9 @@ public class CiudadService {
     }
 
     // Buscar ciudad por ID usando query personalizada
+    @Transactional(Transactional.TxType.SUPPORTS)
     public Ciudad findByIdCiudad(Integer idCiudad) {
-        Ciudad ciudad = ciudadRepository.findByIdCiudad(idCiudad);
+        Ciudad ciudad = referenceDataService.current().ciudad(idCiudad);
         if (ciudad == null) {
             throw new CiudadNotFoundException("No se encontró ciudad con id: " + idCiudad);
         }
@@ -0,0 +1,126 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.sql.PreparedStatement;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import cl.huertohogar.usuario_backend.repository.UsuarioRepository;
+import cl.huertohogar.usuario_backend.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+
+// Filtro de Bloom con los emails registrados, para responder "email libre" sin ir a la base de datos.
+// Si el filtro dice que el email no está, es definitivo; si dice que puede estar, se confirma con la consulta.
+// Se reconstruye periódicamente leyendo la tabla con un cursor (así se descartan emails borrados o cambiados
+// y se ajusta el tamaño al crecer la tabla). Mientras no esté construido, todas las consultas van a la base.
+@Service
+public class EmailAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailAvailabilityService.class);
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int MIN_EXPECTED = 10000;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${usuario.email-bloom.fpp:0.01}")
+    private double fpp;
+
+    private volatile BloomFilter filter;
+    // Filtro en construcción: los emails agregados durante la reconstrucción van a ambos
+    private volatile BloomFilter building;
+
+    private final Counter definitelyAbsent;
+    private final Counter maybePresent;
+
+    public EmailAvailabilityService(MeterRegistry meterRegistry) {
+        this.definitelyAbsent = Counter.builder("usuario.email.bloom").tag("result", "absent")
+            .description("Consultas de email resueltas por el filtro de Bloom").register(meterRegistry);
+        this.maybePresent = Counter.builder("usuario.email.bloom").tag("result", "maybe")
+            .description("Consultas de email que requirieron ir a la base de datos").register(meterRegistry);
+    }
+
+    // true si ya existe un usuario con ese email, sin distinguir mayúsculas (igual que el login)
+    public boolean isRegistered(String email) {
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(normalize(email))) {
+            definitelyAbsent.increment();
+            return false;
+        }
+        maybePresent.increment();
+        return usuarioRepository.existsByEmailIgnoreCase(email);
+    }
+
+    // Registrar un email nuevo (alta o cambio de email). Se agrega cuando la transacción confirma, así una
+    // reconstrucción en curso o ve la fila en su lectura o recibe el email en el filtro que está armando.
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = normalize(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(key);
+                }
+            });
+        } else {
+            put(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${usuario.email-bloom.rebuild-interval:3600000}")
+    @Transactional  // el driver de PostgreSQL sólo usa cursor (fetch size) dentro de una transacción
+    public void rebuild() {
+        long start = System.nanoTime();
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuario", Long.class);
+        // Holgura para las altas hasta la próxima reconstrucción
+        BloomFilter next = new BloomFilter(Math.max(MIN_EXPECTED, (total == null ? 0 : total) * 2), fpp);
+        building = next;
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("SELECT email FROM usuario WHERE email IS NOT NULL");
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                next.put(normalize(rs.getString(1)));
+            });
+            filter = next;
+        } finally {
+            building = null;
+        }
+        log.info("Filtro de emails construido: {} usuarios, {} bits, {} hashes, {} ms",
+            total, next.bitSize(), next.hashCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Primero el filtro en construcción: si ya terminó, filter es el nuevo y también lo recibe
+    private void put(String key) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,289 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import cl.huertohogar.usuario_backend.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+
+// Exportación de usuarios y órdenes fila a fila (NDJSON o CSV), para respaldos y sincronizaciones con el CRM.
+// Se lee con un cursor JDBC de sólo avance (fetch size) y cada fila se escribe a la respuesta apenas llega,
+// sin entidades ni persistence context: la memoria usada es la misma para diez mil filas que para diez millones.
+// Cada exportación ocupa una conexión del pool durante todo el recorrido, así que se limitan las simultáneas
+// (export.max-concurrent); las que sobran reciben 503 con Retry-After en vez de quitarle conexiones al login.
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    // Sin password_hashed ni datos de tokens
+    private static final String[] USUARIO_COLUMNAS = { "id_usuario", "nombre", "snombre", "apaterno", "amaterno",
+        "rut", "dv", "fecha_nacimiento", "id_region", "direccion", "email", "telefono", "rol", "fecha_creacion" };
+
+    private static final String[] ORDEN_COLUMNAS = { "id_orden", "id_usuario", "fecha_orden", "estado",
+        "total_orden", "direccion_envio" };
+
+    public enum Formato {
+        NDJSON, CSV
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    // Cada cuántas filas se envía lo escrito al cliente
+    @Value("${export.flush-every:1000}")
+    private int flushEvery;
+
+    @Value("${export.max-concurrent:1}")
+    private int maxConcurrent;
+
+    @Value("${export.retry-after:60}")
+    private long retryAfter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Semaphore enCurso;
+    private Counter rechazadas;
+
+    @PostConstruct
+    void init() {
+        enCurso = new Semaphore(maxConcurrent);
+        Gauge.builder("export.active", enCurso, sem -> maxConcurrent - sem.availablePermits())
+            .description("Exportaciones en curso").register(meterRegistry);
+        rechazadas = Counter.builder("export.rejected")
+            .description("Exportaciones rechazadas por límite de concurrencia").register(meterRegistry);
+    }
+
+    // Reserva un cupo antes de empezar a responder (después ya no se puede devolver un 503).
+    // Quien lo obtiene debe llamar a liberar() al terminar, también si la exportación falla.
+    public void reservar() {
+        if (!enCurso.tryAcquire()) {
+            rechazadas.increment();
+            throw new ServiceOverloadedException(
+                "Ya hay una exportación en curso, intenta nuevamente más tarde", retryAfter);
+        }
+    }
+
+    public void liberar() {
+        enCurso.release();
+    }
+
+    @Transactional  // el driver de PostgreSQL sólo usa cursor (fetch size) dentro de una transacción
+    public long exportUsuarios(OutputStream out, Formato formato) {
+        return export("usuario", USUARIO_COLUMNAS, out, formato);
+    }
+
+    @Transactional
+    public long exportOrdenes(OutputStream out, Formato formato) {
+        return export("orden", ORDEN_COLUMNAS, out, formato);
+    }
+
+    // Recorre la tabla por su llave primaria (la primera columna)
+    private long export(String tabla, String[] columnas, OutputStream out, Formato formato) {
+        long start = System.nanoTime();
+        String sql = "SELECT " + String.join(", ", columnas) + " FROM " + tabla + " ORDER BY " + columnas[0];
+        RowWriter writer = formato == Formato.CSV ? new CsvRowWriter(out, columnas) : new NdjsonRowWriter(out, columnas);
+        long[] filas = new long[1];
+        try {
+            writer.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, rs -> {
+            try {
+                writer.row(rs);
+                if (++filas[0] % flushEvery == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                // Cliente desconectado: se corta la lectura y se cierra el cursor
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            writer.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Exportación de {} ({}): {} filas en {} ms",
+            tabla, formato, filas[0], (System.nanoTime() - start) / 1_000_000);
+        return filas[0];
+    }
+
+    private interface RowWriter {
+        void start() throws IOException;
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    // Un objeto JSON por línea, escrito directo con el generador de Jackson (sin Map ni DTO por fila)
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final String[] columnas;
+
+        NdjsonRowWriter(OutputStream out, String[] columnas) {
+            this.columnas = columnas;
+            try {
+                this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                this.generator.setRootValueSeparator(null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columnas.length; i++) {
+                generator.writeFieldName(columnas[i]);
+                Object value = rs.getObject(i + 1);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Integer n) {
+                    generator.writeNumber(n);
+                } else if (value instanceof Long n) {
+                    generator.writeNumber(n);
+                } else if (value instanceof Double n) {
+                    generator.writeNumber(n);
+                } else if (value instanceof Boolean b) {
+                    generator.writeBoolean(b);
+                } else {
+                    generator.writeString(texto(value));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();  // no cierra el OutputStream (AUTO_CLOSE_TARGET desactivado), sólo vacía
+        }
+    }
+
+    // CSV (RFC 4180): encabezado con los nombres de columna; comillas sólo cuando hacen falta
+    private final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private final String[] columnas;
+
+        CsvRowWriter(OutputStream out, String[] columnas) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16384);
+            this.columnas = columnas;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writeLine(columnas);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columnas.length; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i);
+                if (value != null) {
+                    writeField(texto(value));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(String[] campos) throws IOException {
+            for (int i = 0; i < campos.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeField(campos[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String campo) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < campo.length() && !quote; i++) {
+                char c = campo.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(campo);
+                return;
+            }
+            writer.write('"');
+            writer.write(campo.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    // Fechas en ISO-8601 (timestamps en UTC)
+    private static String texto(Object value) {
+        if (value instanceof Timestamp ts) {
+            return ts.toInstant().toString();
+        }
+        if (value instanceof Date date) {
+            return date.toLocalDate().toString();
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,259 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import cl.huertohogar.usuario_backend.config.LoginThrottleProperties;
+import cl.huertohogar.usuario_backend.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Limita los intentos de login por email y por IP antes de llegar al hash de contraseñas, para que un
+// ataque de fuerza bruta no consuma el pool de BCrypt. Cada llave tiene un token bucket y, tras fallos
+// consecutivos, un bloqueo que crece exponencialmente. Los buckets se reparten en segmentos con su propio
+// lock para no serializar todos los logins en un solo monitor.
+@Service
+public class LoginThrottleService {
+
+    private static final int STRIPES = 64;
+
+    private final LoginThrottleProperties properties;
+    // System.nanoTime en producción; los tests usan un reloj manual
+    private final LongSupplier nanoClock;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxPerStripe;
+
+    private final Counter rejectedEmail;
+    private final Counter rejectedIp;
+    private final Counter evictions;
+
+    @Autowired
+    public LoginThrottleService(LoginThrottleProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    LoginThrottleService(LoginThrottleProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.maxPerStripe = Math.max(1, properties.getMaxEntries() / STRIPES);
+
+        this.rejectedEmail = Counter.builder("login.throttle.rejected").tag("key", "email")
+            .description("Intentos de login rechazados por límite").register(meterRegistry);
+        this.rejectedIp = Counter.builder("login.throttle.rejected").tag("key", "ip")
+            .description("Intentos de login rechazados por límite").register(meterRegistry);
+        this.evictions = Counter.builder("login.throttle.evictions")
+            .description("Llaves descartadas por inactividad o capacidad").register(meterRegistry);
+        Gauge.builder("login.throttle.keys", this, LoginThrottleService::size).register(meterRegistry);
+    }
+
+    // Consume un intento para la IP y el email; lanza TooManyLoginAttemptsException (429) si alguno está agotado o bloqueado
+    public void acquire(String email, String ip) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        if (ip != null) {
+            long wait = tryAcquire(ipKey(ip), properties.getIpCapacity(), properties.getIpRefillPerMinute(), now);
+            if (wait > 0) {
+                rejectedIp.increment();
+                throw tooMany(wait);
+            }
+        }
+        if (email != null) {
+            long wait = tryAcquire(emailKey(email), properties.getEmailCapacity(), properties.getEmailRefillPerMinute(), now);
+            if (wait > 0) {
+                rejectedEmail.increment();
+                throw tooMany(wait);
+            }
+        }
+    }
+
+    public void onFailure(String email, String ip) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        if (ip != null) {
+            recordFailure(ipKey(ip), properties.getIpBackoffAfter(), now);
+        }
+        if (email != null) {
+            recordFailure(emailKey(email), properties.getEmailBackoffAfter(), now);
+        }
+    }
+
+    // Un login correcto sólo limpia los fallos del email: la IP puede ser compartida con quien está atacando
+    public void onSuccess(String email) {
+        if (!properties.isEnabled() || email == null) {
+            return;
+        }
+        String key = emailKey(email);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket != null) {
+                bucket.failures = 0;
+                bucket.blockedUntil = 0;
+            }
+        }
+    }
+
+    // Descarta las llaves sin actividad reciente y sin bloqueo vigente, para acotar la memoria
+    @Scheduled(fixedDelayString = "${login.throttle.eviction-interval:60000}")
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                evictIdle(stripe, now);
+            }
+        }
+    }
+
+    int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.buckets.size();
+            }
+        }
+        return total;
+    }
+
+    // 0 si hay un intento disponible; si no, nanos hasta el próximo
+    private long tryAcquire(String key, int capacity, double refillPerMinute, long now) {
+        double refillPerNano = refillPerMinute / TimeUnit.MINUTES.toNanos(1);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= maxPerStripe) {
+                    long wait = makeRoom(stripe, now);
+                    if (wait > 0) {
+                        return wait;
+                    }
+                }
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            }
+            bucket.lastSeen = now;
+            if (now - bucket.blockedUntil < 0) {
+                return bucket.blockedUntil - now;
+            }
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) * refillPerNano);
+            bucket.refilledAt = now;
+            if (bucket.tokens < 1) {
+                return refillPerNano > 0 ? (long) Math.ceil((1 - bucket.tokens) / refillPerNano) : TimeUnit.MINUTES.toNanos(1);
+            }
+            bucket.tokens -= 1;
+            return 0;
+        }
+    }
+
+    private void recordFailure(String key, int backoffAfter, long now) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                return;
+            }
+            bucket.failures++;
+            bucket.lastSeen = now;
+            if (bucket.failures <= backoffAfter) {
+                return;
+            }
+            int exponent = Math.min(bucket.failures - backoffAfter - 1, 30);
+            long backoff = Math.min(properties.getBaseBackoff() << exponent, properties.getMaxBackoff());
+            bucket.blockedUntil = now + TimeUnit.MILLISECONDS.toNanos(backoff);
+        }
+    }
+
+    private void evictIdle(Stripe stripe, long now) {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleTimeout());
+        Iterator<Bucket> it = stripe.buckets.values().iterator();
+        while (it.hasNext()) {
+            Bucket bucket = it.next();
+            if (now - bucket.lastSeen > idleNanos && now - bucket.blockedUntil >= 0) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    // Segmento lleno: primero las llaves inactivas y, si no alcanza, la usada hace más tiempo que no esté
+    // bloqueada (como evictIdle): si no, bastaría con llenar el segmento de llaves nuevas para borrar el
+    // bloqueo de otra. Con todas bloqueadas la llave nueva se rechaza; retorna 0 si hizo espacio o, si no,
+    // nanos hasta que termine el primer bloqueo
+    private long makeRoom(Stripe stripe, long now) {
+        evictIdle(stripe, now);
+        if (stripe.buckets.size() < maxPerStripe) {
+            return 0;
+        }
+        String oldest = null;
+        long oldestSeen = 0;
+        long firstUnblock = Long.MAX_VALUE;
+        for (Map.Entry<String, Bucket> entry : stripe.buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            if (now - bucket.blockedUntil < 0) {
+                firstUnblock = Math.min(firstUnblock, bucket.blockedUntil - now);
+            } else if (oldest == null || bucket.lastSeen - oldestSeen < 0) {
+                oldest = entry.getKey();
+                oldestSeen = bucket.lastSeen;
+            }
+        }
+        if (oldest == null) {
+            return firstUnblock;
+        }
+        stripe.buckets.remove(oldest);
+        evictions.increment();
+        return 0;
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static String emailKey(String email) {
+        return "e:" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(String ip) {
+        return "i:" + ip;
+    }
+
+    private static TooManyLoginAttemptsException tooMany(long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new TooManyLoginAttemptsException(
+            "Demasiados intentos de inicio de sesión, intenta nuevamente en " + seconds + " segundos", seconds);
+    }
+
+    private static final class Stripe {
+        final Map<String, Bucket> buckets = new HashMap<>();
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+        long lastSeen;
+        long blockedUntil;
+        int failures;
+
+        Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.refilledAt = now;
+            this.lastSeen = now;
+            this.blockedUntil = now;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import cl.huertohogar.usuario_backend.dto.OrdenResponse;
+import cl.huertohogar.usuario_backend.model.OrdenResumenUsuario;
+import cl.huertohogar.usuario_backend.repository.OrdenRepository;
+import cl.huertohogar.usuario_backend.repository.OrdenResumenUsuarioRepository;
+import jakarta.transaction.Transactional;
+
+// Mantiene orden_resumen_usuario (cantidad de órdenes, total gastado y última fecha por usuario).
+// Lo llama OrdenService dentro de su propia transacción, así el resumen se confirma o se revierte junto
+// con la orden. Los cambios son sentencias relativas (cantidad + 1, total - x) sobre una sola fila:
+// dos órdenes simultáneas del mismo usuario se esperan en el lock de esa fila y ninguna pisa a la otra.
+@Service
+@Transactional
+public class OrdenResumenService {
+
+    private static final String REGISTRAR_SQL =
+        "INSERT INTO orden_resumen_usuario (id_usuario, cantidad_ordenes, total_gastado, ultima_orden) "
+        + "VALUES (?, ?, ?, ?) "
+        + "ON CONFLICT (id_usuario) DO UPDATE SET "
+        + "cantidad_ordenes = orden_resumen_usuario.cantidad_ordenes + EXCLUDED.cantidad_ordenes, "
+        + "total_gastado = orden_resumen_usuario.total_gastado + EXCLUDED.total_gastado, "
+        + "ultima_orden = GREATEST(orden_resumen_usuario.ultima_orden, EXCLUDED.ultima_orden)";
+
+    // La última fecha no se puede descontar: se vuelve a leer (idx_orden_usuario_fecha, una entrada del índice)
+    private static final String QUITAR_SQL =
+        "UPDATE orden_resumen_usuario SET "
+        + "cantidad_ordenes = cantidad_ordenes - 1, "
+        + "total_gastado = total_gastado - ?, "
+        + "ultima_orden = (SELECT MAX(o.fecha_orden) FROM orden o WHERE o.id_usuario = ?) "
+        + "WHERE id_usuario = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrdenRepository ordenRepository;
+
+    @Autowired
+    private OrdenResumenUsuarioRepository ordenResumenUsuarioRepository;
+
+    // Resumen del usuario (ceros si todavía no tiene órdenes); una lectura por llave primaria
+    public OrdenResumenUsuario findByUsuario(Integer idUsuario) {
+        return ordenResumenUsuarioRepository.findById(idUsuario)
+            .orElseGet(() -> new OrdenResumenUsuario(idUsuario, 0L, 0.0, null));
+    }
+
+    // Suma una orden nueva al usuario
+    public void registrar(Integer idUsuario, Double total, LocalDate fecha) {
+        jdbcTemplate.update(REGISTRAR_SQL, idUsuario, 1, total, Date.valueOf(fecha));
+    }
+
+    // Suma un lote de órdenes nuevas: una fila por usuario (no por orden), en un solo batch.
+    // Los usuarios van ordenados por ID para que dos lotes concurrentes tomen los locks de fila en el
+    // mismo orden y no se bloqueen mutuamente (deadlock).
+    public void registrarLote(Collection<OrdenResponse> ordenes) {
+        Map<Integer, Acumulado> porUsuario = new TreeMap<>();
+        for (OrdenResponse orden : ordenes) {
+            porUsuario.computeIfAbsent(orden.getIdUsuario(), id -> new Acumulado())
+                .sumar(orden.getTotalOrden(), orden.getFechaOrden());
+        }
+        List<Object[]> filas = new ArrayList<>(porUsuario.size());
+        porUsuario.forEach((idUsuario, a) ->
+            filas.add(new Object[] { idUsuario, a.cantidad, a.total, Date.valueOf(a.ultima) }));
+        jdbcTemplate.batchUpdate(REGISTRAR_SQL, filas);
+    }
+
+    // Descuenta una orden ya borrada o movida a otro usuario
+    public void quitar(Integer idUsuario, Double total) {
+        // El MAX(fecha_orden) tiene que ver el DELETE/UPDATE de la orden, que Hibernate aún no ha enviado
+        ordenRepository.flush();
+        jdbcTemplate.update(QUITAR_SQL, total, idUsuario, idUsuario);
+    }
+
+    // Cambio de usuario, total o fecha de una orden existente
+    public void reemplazar(Integer idUsuarioAnterior, Double totalAnterior,
+            Integer idUsuario, Double total, LocalDate fecha) {
+        quitar(idUsuarioAnterior, totalAnterior);
+        registrar(idUsuario, total, fecha);
+    }
+
+    private static final class Acumulado {
+        private long cantidad;
+        private double total;
+        private LocalDate ultima;
+
+        void sumar(Double totalOrden, LocalDate fecha) {
+            cantidad++;
+            total += totalOrden;
+            if (ultima == null || fecha.isAfter(ultima)) {
+                ultima = fecha;
+            }
+        }
+    }
+}
@@ -1,14 +1,27 @@
 package cl.huertohogar.usuario_backend.service;
 
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import cl.huertohogar.usuario_backend.dto.OrdenRequest;
+import cl.huertohogar.usuario_backend.dto.OrdenResponse;
+import cl.huertohogar.usuario_backend.dto.TotalOrdenes;
 import cl.huertohogar.usuario_backend.exception.OrdenNotFoundException;
 import cl.huertohogar.usuario_backend.exception.OrdenNotValidException;
+import cl.huertohogar.usuario_backend.exception.UsuarioNotFoundException;
 import cl.huertohogar.usuario_backend.model.Orden;
+import cl.huertohogar.usuario_backend.model.OrdenResumenUsuario;
 import cl.huertohogar.usuario_backend.repository.OrdenRepository;
 import jakarta.transaction.Transactional;
 
@@ -16,12 +29,36 @@ import jakarta.transaction.Transactional;
 @Transactional
 public class OrdenService {
 
+    // Los IDs del lote se reservan de la secuencia de la columna identity en una sola consulta; con el ID
+    // ya conocido el INSERT no necesita RETURNING y el driver puede reescribir el batch (reWriteBatchedInserts)
+    private static final String RESERVAR_IDS_SQL =
+        "SELECT nextval(pg_get_serial_sequence('orden', 'id_orden')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL =
+        "INSERT INTO orden (id_orden, id_usuario, fecha_orden, estado, total_orden, direccion_envio) "
+        + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String USUARIOS_EXISTENTES_SQL = "SELECT id_usuario FROM usuario WHERE id_usuario = ANY(?)";
+
     @Autowired
     private OrdenRepository ordenRepository;
 
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private OrdenResumenService ordenResumenService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${orden.lote.max-size:1000}")
+    private int loteMaxSize;
+
+    // Filas por executeBatch; con reWriteBatchedInserts el driver las envía como INSERTs multi-fila
+    @Value("${orden.lote.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
     // CREATE - Crear una nueva orden
     public Orden save(Orden orden) {
         if (orden == null) {
@@ -45,12 +82,83 @@ public class OrdenService {
         if (orden.getDireccionEnvio() == null || orden.getDireccionEnvio().trim().isEmpty()) {
             throw new OrdenNotValidException("La dirección de envío es obligatoria");
         }
-        return ordenRepository.save(orden);
+        Orden guardada = ordenRepository.save(orden);
+        ordenResumenService.registrar(guardada.getUsuario().getIdUsuario(), guardada.getTotalOrden(), guardada.getFechaOrden());
+        return guardada;
     }
 
-    // READ 
-    public List<Orden> findAll() {
-        List<Orden> ordenes = ordenRepository.findAll();
+    // CREATE en lote (checkout): todo o nada, en una transacción. Se valida el lote completo antes de
+    // escribir, los usuarios se comprueban con una sola consulta (ANY) y las órdenes se insertan por JDBC
+    // en batch, sin entidades: unas pocas idas a la base por lote en vez de varias por orden.
+    public List<OrdenResponse> saveAll(List<OrdenRequest> ordenes) {
+        if (ordenes == null || ordenes.isEmpty()) {
+            throw new OrdenNotValidException("El lote de órdenes no puede estar vacío");
+        }
+        if (ordenes.size() > loteMaxSize) {
+            throw new OrdenNotValidException("El lote no puede tener más de " + loteMaxSize + " órdenes");
+        }
+        LocalDate hoy = LocalDate.now();
+        Set<Integer> idsUsuario = new TreeSet<>();
+        for (int i = 0; i < ordenes.size(); i++) {
+            OrdenRequest orden = ordenes.get(i);
+            String prefijo = "Orden " + (i + 1) + ": ";
+            if (orden == null) {
+                throw new OrdenNotValidException(prefijo + "La orden no puede ser nula");
+            }
+            if (orden.getIdUsuario() == null) {
+                throw new OrdenNotValidException(prefijo + "El usuario de la orden es obligatorio");
+            }
+            if (orden.getEstado() == null || orden.getEstado().trim().isEmpty()) {
+                throw new OrdenNotValidException(prefijo + "El estado de la orden es obligatorio");
+            }
+            if (orden.getTotalOrden() == null || orden.getTotalOrden() <= 0) {
+                throw new OrdenNotValidException(prefijo + "El total de la orden debe ser mayor a 0");
+            }
+            if (orden.getDireccionEnvio() == null || orden.getDireccionEnvio().trim().isEmpty()) {
+                throw new OrdenNotValidException(prefijo + "La dirección de envío es obligatoria");
+            }
+            idsUsuario.add(orden.getIdUsuario());
+        }
+        validarUsuariosExisten(idsUsuario);
+
+        List<Long> ids = jdbcTemplate.queryForList(RESERVAR_IDS_SQL, Long.class, ordenes.size());
+        List<OrdenResponse> creadas = new ArrayList<>(ordenes.size());
+        for (int i = 0; i < ordenes.size(); i++) {
+            OrdenRequest orden = ordenes.get(i);
+            creadas.add(new OrdenResponse(ids.get(i).intValue(), orden.getIdUsuario(),
+                orden.getFechaOrden() != null ? orden.getFechaOrden() : hoy,
+                orden.getEstado(), orden.getTotalOrden(), orden.getDireccionEnvio()));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, creadas, jdbcBatchSize, (ps, orden) -> {
+            ps.setInt(1, orden.getIdOrden());
+            ps.setInt(2, orden.getIdUsuario());
+            ps.setDate(3, Date.valueOf(orden.getFechaOrden()));
+            ps.setString(4, orden.getEstado());
+            ps.setDouble(5, orden.getTotalOrden());
+            ps.setString(6, orden.getDireccionEnvio());
+        });
+        ordenResumenService.registrarLote(creadas);
+        return creadas;
+    }
+
+    private void validarUsuariosExisten(Set<Integer> idsUsuario) {
+        Set<Integer> faltantes = new TreeSet<>(idsUsuario);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(USUARIOS_EXISTENTES_SQL);
+            Array array = con.createArrayOf("integer", idsUsuario.toArray());
+            ps.setArray(1, array);
+            return ps;
+        }, rs -> {
+            faltantes.remove(rs.getInt(1));
+        });
+        if (!faltantes.isEmpty()) {
+            throw new UsuarioNotFoundException("Usuarios no encontrados: " + faltantes);
+        }
+    }
+
+    // READ (proyección con idUsuario: una sola consulta, sin cargar usuarios)
+    public List<OrdenResponse> findAll() {
+        List<OrdenResponse> ordenes = ordenRepository.findAllResumen();
         if (ordenes.isEmpty()) {
             throw new OrdenNotFoundException("No se encontraron órdenes");
         }
@@ -86,6 +194,8 @@ public class OrdenService {
         if (ordenActualizada.getDireccionEnvio() == null || ordenActualizada.getDireccionEnvio().trim().isEmpty()) {
             throw new OrdenNotValidException("La dirección de envío es obligatoria");
         }
+        Integer idUsuarioAnterior = ordenExistente.getUsuario().getIdUsuario();
+        Double totalAnterior = ordenExistente.getTotalOrden();
         
         // Actualizar campos
         ordenExistente.setUsuario(ordenActualizada.getUsuario());
@@ -94,12 +204,18 @@ public class OrdenService {
         ordenExistente.setTotalOrden(ordenActualizada.getTotalOrden());
         ordenExistente.setDireccionEnvio(ordenActualizada.getDireccionEnvio());
 
-        return ordenRepository.save(ordenExistente);
+        Orden guardada = ordenRepository.save(ordenExistente);
+        ordenResumenService.reemplazar(idUsuarioAnterior, totalAnterior,
+            guardada.getUsuario().getIdUsuario(), guardada.getTotalOrden(), guardada.getFechaOrden());
+        return guardada;
     }
 
     // PATCH 
     public Orden partialUpdate(Integer id, Orden ordenActualizada) {
         Orden ordenExistente = findById(id);
+        Integer idUsuarioAnterior = ordenExistente.getUsuario().getIdUsuario();
+        Double totalAnterior = ordenExistente.getTotalOrden();
+        LocalDate fechaAnterior = ordenExistente.getFechaOrden();
         
         // Solo actualiza los campos que no son nulos
         if (ordenActualizada.getUsuario() != null) {
@@ -133,21 +249,30 @@ public class OrdenService {
             ordenExistente.setDireccionEnvio(ordenActualizada.getDireccionEnvio());
         }
 
-        return ordenRepository.save(ordenExistente);
+        Orden guardada = ordenRepository.save(ordenExistente);
+        // Cambiar estado o dirección no toca el resumen
+        if (!idUsuarioAnterior.equals(guardada.getUsuario().getIdUsuario())
+                || !totalAnterior.equals(guardada.getTotalOrden())
+                || !fechaAnterior.equals(guardada.getFechaOrden())) {
+            ordenResumenService.reemplazar(idUsuarioAnterior, totalAnterior,
+                guardada.getUsuario().getIdUsuario(), guardada.getTotalOrden(), guardada.getFechaOrden());
+        }
+        return guardada;
     }
 
     // DELETE 
     public void deleteById(Integer id) {
         Orden orden = findById(id);
         ordenRepository.delete(orden);
+        ordenResumenService.quitar(orden.getUsuario().getIdUsuario(), orden.getTotalOrden());
     }
     
     // Buscar ordenes por usuario
-    public List<Orden> findByUsuario(Integer idUsuario) {
+    public List<OrdenResponse> findByUsuario(Integer idUsuario) {
         // Validar que el usuario existe
         usuarioService.findById(idUsuario);
         
-        List<Orden> ordenes = ordenRepository.findByUsuarioIdUsuario(idUsuario);
+        List<OrdenResponse> ordenes = ordenRepository.findResumenByUsuario(idUsuario);
         if (ordenes.isEmpty()) {
             throw new OrdenNotFoundException("No se encontraron órdenes para el usuario con id: " + idUsuario);
         }
@@ -155,8 +280,8 @@ public class OrdenService {
     }
 
     // Buscar por estado
-    public List<Orden> findByEstado(String estado) {
-        List<Orden> ordenes = ordenRepository.findByEstado(estado);
+    public List<OrdenResponse> findByEstado(String estado) {
+        List<OrdenResponse> ordenes = ordenRepository.findResumenByEstado(estado);
         if (ordenes.isEmpty()) {
             throw new OrdenNotFoundException("No se encontraron órdenes con estado: " + estado);
         }
@@ -164,8 +289,8 @@ public class OrdenService {
     }
 
     // Buscar por rango de fechas
-    public List<Orden> findByRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) {
-        List<Orden> ordenes = ordenRepository.findByFechaOrdenBetween(fechaInicio, fechaFin);
+    public List<OrdenResponse> findByRangoFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        List<OrdenResponse> ordenes = ordenRepository.findResumenByFechaOrdenBetween(fechaInicio, fechaFin);
         if (ordenes.isEmpty()) {
             throw new OrdenNotFoundException("No se encontraron órdenes entre " + fechaInicio + " y " + fechaFin);
         }
@@ -183,11 +308,18 @@ public class OrdenService {
         return ordenRepository.save(orden);
     }
 
-    // Calcular total de órdenes por usuario
+    // Calcular total de órdenes por usuario (COUNT y SUM en la base, sin traer las órdenes)
     public Double calcularTotalPorUsuario(Integer idUsuario) {
-        List<Orden> ordenes = findByUsuario(idUsuario);
-        return ordenes.stream()
-            .mapToDouble(Orden::getTotalOrden)
-            .sum();
+        TotalOrdenes total = ordenRepository.totalByUsuario(idUsuario);
+        if (total.cantidad() == 0) {
+            throw new OrdenNotFoundException("No se encontraron órdenes para el usuario con id: " + idUsuario);
+        }
+        return total.total();
+    }
+
+    // Cantidad de órdenes, total gastado y última orden del usuario (tabla de resumen, sin recorrer órdenes)
+    public OrdenResumenUsuario findResumenByUsuario(Integer idUsuario) {
+        usuarioService.findById(idUsuario);
+        return ordenResumenService.findByUsuario(idUsuario);
     }
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import cl.huertohogar.usuario_backend.config.PasswordProperties;
+import cl.huertohogar.usuario_backend.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// Hash y verificación de contraseñas en un pool dedicado y acotado (BCrypt/Argon2 son intensivos en CPU).
+// Así una ola de logins no ocupa todos los hilos de Tomcat: cuando la cola está llena se responde 503.
+// Los hashes llevan prefijo de algoritmo ({bcrypt}, {argon2}, {pbkdf2}); los hashes BCrypt antiguos sin
+// prefijo se siguen verificando como BCrypt.
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+
+    static final String BCRYPT = "bcrypt";
+    static final String ARGON2 = "argon2";
+    static final String PBKDF2 = "pbkdf2";
+
+    private final PasswordProperties properties;
+    private final int strength;
+    private final String encodingId;
+    private final DelegatingPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.encodingId = properties.getAlgorithm().toLowerCase();
+        if (properties.getBcryptStrength() > 0) {
+            this.strength = properties.getBcryptStrength();
+        } else if (BCRYPT.equals(encodingId)) {
+            this.strength = calibrate();
+        } else {
+            this.strength = properties.getBcryptMinStrength();
+        }
+        this.passwordEncoder = buildPasswordEncoder(properties, encodingId, strength);
+        log.info("Hash de contraseñas: {} (costo BCrypt {})", encodingId, strength);
+
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(
+            threads, threads,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            new CustomizableThreadFactory("password-hash-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        this.waitTimer = Timer.builder("password.hashing.wait").description("Tiempo en cola antes de hashear").register(meterRegistry);
+        this.hashTimer = Timer.builder("password.hashing.duration").description("Tiempo de hash/verificación").register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected").description("Solicitudes rechazadas por cola llena").register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String hashedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, hashedPassword));
+    }
+
+    // true si el hash usa otro algoritmo o parámetros más débiles que los configurados (se recalcula tras un
+    // login exitoso). Un costo BCrypt mayor al local no se baja: cada nodo calibra el suyo, y con hardware
+    // distinto los nodos se pasarían el mismo hash de un costo al otro en cada login.
+    public boolean needsRehash(String hashedPassword) {
+        if (hashedPassword == null) {
+            return false;
+        }
+        String id = algorithmId(hashedPassword);
+        if (!encodingId.equals(id == null ? BCRYPT : id)) {
+            return true;
+        }
+        if (BCRYPT.equals(encodingId)) {
+            Integer cost = bcryptCost(id == null ? hashedPassword : hashedPassword.substring(id.length() + 2));
+            return cost == null || cost < strength;
+        }
+        return passwordEncoder.upgradeEncoding(hashedPassword);
+    }
+
+    // Hash en segundo plano, sin esperar el resultado. Sólo se encola si el pool tiene holgura
+    // (la mitad de la cola libre), para no competir con logins; si no, se omite y se reintenta en otro login.
+    public boolean encodeInBackground(String rawPassword, Consumer<String> onEncoded) {
+        if (executor.getQueue().remainingCapacity() < properties.getQueueCapacity() / 2) {
+            return false;
+        }
+        try {
+            executor.execute(() -> onEncoded.accept(hashTimer.record(() -> passwordEncoder.encode(rawPassword))));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    // Encoder con prefijo de algoritmo; codifica con encodingId y verifica cualquiera de los tres
+    static DelegatingPasswordEncoder buildPasswordEncoder(PasswordProperties properties, String encodingId, int bcryptStrength) {
+        PasswordProperties.Argon2 argon2 = properties.getArgon2();
+        PasswordProperties.Pbkdf2 pbkdf2 = properties.getPbkdf2();
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put(ARGON2, new Argon2PasswordEncoder(
+            argon2.getSaltLength(), argon2.getHashLength(), argon2.getParallelism(),
+            argon2.getMemory(), argon2.getIterations()));
+        encoders.put(PBKDF2, new Pbkdf2PasswordEncoder(
+            "", pbkdf2.getSaltLength(), pbkdf2.getIterations(),
+            Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+
+        if (!encoders.containsKey(encodingId)) {
+            throw new IllegalStateException("Algoritmo de contraseñas no soportado: " + encodingId);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encodingId, encoders);
+        // Hashes antiguos sin prefijo ("$2a$10$...")
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return delegating;
+    }
+
+    // "{argon2}..." -> "argon2"; null si no tiene prefijo
+    private static String algorithmId(String hash) {
+        if (!hash.startsWith("{")) {
+            return null;
+        }
+        int end = hash.indexOf('}');
+        return end > 0 ? hash.substring(1, end) : null;
+    }
+
+    // Mide un hash con costo 10 y extrapola (cada +1 de costo duplica el tiempo) hasta acercarse al objetivo
+    private int calibrate() {
+        int baseStrength = 10;
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(baseStrength);
+        probe.encode("calibracion");  // calentamiento
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibracion");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double baseMillis = Math.max(best / 1_000_000.0, 0.1);
+        int calibrated = baseStrength + (int) Math.round(Math.log(properties.getTargetHashTime() / baseMillis) / Math.log(2));
+        int result = Math.max(properties.getBcryptMinStrength(), Math.min(MAX_BCRYPT_STRENGTH, calibrated));
+        log.info("Calibración BCrypt: costo 10 = {} ms, objetivo {} ms -> costo {}",
+            String.format("%.1f", baseMillis), properties.getTargetHashTime(), result);
+        return result;
+    }
+
+    // Costo de un hash "$2a$10$...", o null si no es BCrypt
+    private static Integer bcryptCost(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return null;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private <T> T run(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw overloaded();
+        }
+
+        try {
+            return future.get(properties.getTimeout(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw overloaded();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ServiceOverloadedException overloaded() {
+        return new ServiceOverloadedException(
+            "El servicio está ocupado procesando contraseñas, intenta nuevamente en unos segundos",
+            properties.getRetryAfter());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
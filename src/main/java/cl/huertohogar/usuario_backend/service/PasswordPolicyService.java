@@ -0,0 +1,211 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import cl.huertohogar.usuario_backend.config.PasswordProperties;
+
+// Política de contraseñas: requisitos mínimos, fortaleza estimada por entropía y verificación contra
+// contraseñas filtradas. Los caracteres se clasifican en una sola pasada, sin regex ni asignaciones.
+// Las filtradas se buscan en un archivo local de SHA-1 ordenados (formato de Have I Been Pwned, en binario)
+// mapeado a memoria, con un índice por los primeros 16 bits del hash y bisección dentro del rango; sin red.
+@Service
+public class PasswordPolicyService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordPolicyService.class);
+
+    public static final String REQUIREMENTS_MESSAGE =
+        "La contraseña debe tener al menos 8 caracteres, una mayúscula, una minúscula, un número y un carácter especial (@$!%*?&)";
+    public static final String BREACHED_MESSAGE =
+        "La contraseña aparece en filtraciones de datos conocidas, elige otra";
+
+    public static final String DEBIL = "DÉBIL";
+    public static final String MODERADA = "MODERADA";
+    public static final String FUERTE = "FUERTE";
+    public static final String MUY_FUERTE = "MUY FUERTE";
+
+    private static final int MIN_LENGTH = 8;
+    private static final int HASH_LENGTH = 20;
+    private static final int PREFIX_BITS = 16;
+    // Registros completos por segmento mapeado (un MappedByteBuffer no supera 2 GB)
+    private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / HASH_LENGTH;
+
+    // Resultado de evaluar una contraseña; valid exige los requisitos y que no esté filtrada
+    public record Evaluation(boolean valid, String strength, double entropyBits, boolean breached) {
+    }
+
+    private final MappedByteBuffer[] segments;
+    private final long recordCount;
+    // prefixIndex[p] = primer registro cuyo hash empieza con los 16 bits p (y prefixIndex[65536] = total)
+    private final long[] prefixIndex;
+
+    private final ThreadLocal<MessageDigest> sha1 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    public PasswordPolicyService(PasswordProperties properties) {
+        String file = properties.getBreachedHashFile();
+        if (file == null || file.isBlank()) {
+            this.segments = new MappedByteBuffer[0];
+            this.recordCount = 0;
+            this.prefixIndex = null;
+            log.info("Sin archivo de contraseñas filtradas (password.breached-hash-file): no se verificarán");
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(file), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % HASH_LENGTH != 0) {
+                log.warn("El archivo {} no tiene un largo múltiplo de {} bytes; se ignora el resto", file, HASH_LENGTH);
+            }
+            this.recordCount = size / HASH_LENGTH;
+            int segmentCount = (int) ((recordCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+            this.segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long first = (long) i * RECORDS_PER_SEGMENT;
+                long records = Math.min(RECORDS_PER_SEGMENT, recordCount - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, first * HASH_LENGTH, records * HASH_LENGTH);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo abrir el archivo de contraseñas filtradas: " + file, e);
+        }
+        this.prefixIndex = new long[(1 << PREFIX_BITS) + 1];
+        for (int p = 0; p < 1 << PREFIX_BITS; p++) {
+            prefixIndex[p] = lowerBound((long) p << (64 - PREFIX_BITS));
+        }
+        prefixIndex[1 << PREFIX_BITS] = recordCount;
+        log.info("Contraseñas filtradas: {} hashes en {}", recordCount, file);
+    }
+
+    public Evaluation evaluate(String password) {
+        if (password == null || password.isEmpty()) {
+            return new Evaluation(false, DEBIL, 0, false);
+        }
+
+        boolean lower = false;
+        boolean upper = false;
+        boolean digit = false;
+        boolean special = false;
+        boolean other = false;
+        // Caracteres que no repiten ni continúan una secuencia con el anterior ("aaaa", "1234", "dcba")
+        int effectiveLength = 0;
+        char prev = 0;
+        int length = password.length();
+        for (int i = 0; i < length; i++) {
+            char c = password.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                lower = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                upper = true;
+            } else if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c == '@' || c == '$' || c == '!' || c == '%' || c == '*' || c == '?' || c == '&') {
+                special = true;
+            } else {
+                other = true;
+            }
+            if (i == 0 || (c != prev && c != prev + 1 && c != prev - 1)) {
+                effectiveLength++;
+            }
+            prev = c;
+        }
+
+        int pool = (lower ? 26 : 0) + (upper ? 26 : 0) + (digit ? 10 : 0) + (special || other ? 33 : 0);
+        double entropyBits = effectiveLength * (Math.log(pool) / Math.log(2));
+        // Mismos caracteres permitidos que la validación anterior: letras ASCII, dígitos y @$!%*?&
+        boolean meetsRequirements = length >= MIN_LENGTH && lower && upper && digit && special && !other;
+        boolean breached = isBreached(password);
+
+        String strength;
+        if (breached || length < MIN_LENGTH || entropyBits < 45) {
+            strength = DEBIL;
+        } else if (entropyBits < 52) {
+            strength = MODERADA;
+        } else if (entropyBits < 75) {
+            strength = FUERTE;
+        } else {
+            strength = MUY_FUERTE;
+        }
+        return new Evaluation(meetsRequirements && !breached, strength, entropyBits, breached);
+    }
+
+    public boolean isBreached(String password) {
+        if (recordCount == 0 || password == null) {
+            return false;
+        }
+        byte[] digest = sha1.get().digest(password.getBytes(StandardCharsets.UTF_8));
+        long prefix = 0;
+        for (int i = 0; i < 8; i++) {
+            prefix = (prefix << 8) | (digest[i] & 0xff);
+        }
+        int bucket = (int) (prefix >>> (64 - PREFIX_BITS));
+        long lo = prefixIndex[bucket];
+        long hi = prefixIndex[bucket + 1] - 1;
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            int cmp = compare(mid, prefix, digest);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getBreachedHashCount() {
+        return recordCount;
+    }
+
+    // Primer registro cuyos primeros 8 bytes son >= prefix (sin signo)
+    private long lowerBound(long prefix) {
+        long lo = 0;
+        long hi = recordCount;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(prefixAt(mid), prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Compara primero los 8 bytes iniciales como un long y sólo si coinciden el resto del hash
+    private int compare(long record, long prefix, byte[] digest) {
+        int cmp = Long.compareUnsigned(prefixAt(record), prefix);
+        if (cmp != 0) {
+            return cmp;
+        }
+        MappedByteBuffer segment = segments[(int) (record / RECORDS_PER_SEGMENT)];
+        int offset = (int) (record % RECORDS_PER_SEGMENT) * HASH_LENGTH;
+        for (int i = 8; i < HASH_LENGTH; i++) {
+            cmp = Integer.compare(segment.get(offset + i) & 0xff, digest[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private long prefixAt(long record) {
+        MappedByteBuffer segment = segments[(int) (record / RECORDS_PER_SEGMENT)];
+        return segment.getLong((int) (record % RECORDS_PER_SEGMENT) * HASH_LENGTH);
+    }
+}
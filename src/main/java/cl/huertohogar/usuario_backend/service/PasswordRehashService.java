@@ -0,0 +1,81 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import cl.huertohogar.usuario_backend.model.Usuario;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+// Recalcula en segundo plano los hashes con otro algoritmo o costo que el configurado, tras un login exitoso,
+// y los escribe en lote fuera del request. El UPDATE compara el hash anterior para no pisar un
+// cambio de contraseña hecho mientras tanto.
+@Service
+public class PasswordRehashService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordRehashService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private record PendingRehash(Integer idUsuario, String oldHash, String newHash) {
+    }
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Queue<PendingRehash> pending = new ConcurrentLinkedQueue<>();
+
+    public void rehashIfNeeded(Integer idUsuario, String plainPassword, String currentHash) {
+        if (!passwordHashingService.needsRehash(currentHash)) {
+            return;
+        }
+        passwordHashingService.encodeInBackground(plainPassword,
+            newHash -> pending.add(new PendingRehash(idUsuario, currentHash, newHash)));
+    }
+
+    @Scheduled(fixedDelayString = "${password.rehash-flush-interval:5000}")
+    public void flush() {
+        while (!pending.isEmpty()) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            PendingRehash item;
+            while (batch.size() < BATCH_SIZE && (item = pending.poll()) != null) {
+                batch.add(new Object[] { item.newHash(), item.idUsuario(), item.oldHash() });
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                jdbcTemplate.batchUpdate(
+                    "UPDATE usuario SET password_hashed = ? WHERE id_usuario = ? AND password_hashed = ?", batch);
+                // El UPDATE va por JDBC: se sacan del cache de segundo nivel las copias con el hash anterior
+                for (Object[] row : batch) {
+                    entityManagerFactory.getCache().evict(Usuario.class, row[1]);
+                }
+                log.debug("Hashes de contraseña actualizados al costo vigente: {}", batch.size());
+            } catch (RuntimeException e) {
+                // Se descartan: el hash se volverá a recalcular en el próximo login
+                log.warn("No se pudieron guardar {} hashes recalculados", batch.size(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,196 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import cl.huertohogar.usuario_backend.util.IntStringMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+
+// Directorio opcional en memoria id -> primer nombre de todos los usuarios (usuario.nombre-directory.enabled).
+// Usa un mapa de int con direccionamiento abierto y nombres internados (los nombres se repiten mucho), así
+// un millón de usuarios ocupa del orden de 16 MB y /public/usuarios/{id}/nombre no va a la base ni crea Integer.
+// Se carga leyendo la tabla con un cursor y se mantiene al día con las altas, cambios y bajas de UsuarioService
+// (y de otros nodos vía CacheInvalidationService); una recarga periódica corrige cualquier desvío.
+@Service
+public class PublicNameDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicNameDirectory.class);
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int MIN_EXPECTED = 1024;
+
+    private record Change(int idUsuario, String nombre) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${usuario.nombre-directory.enabled:false}")
+    private boolean enabled;
+
+    private final StampedLock lock = new StampedLock();
+    // Guardados por lock
+    private IntStringMap nombres;
+    private List<Change> pendingDuringReload;
+
+    public PublicNameDirectory(MeterRegistry meterRegistry) {
+        Gauge.builder("usuario.nombre.directory.size", this, d -> d.stats(false)).register(meterRegistry);
+        Gauge.builder("usuario.nombre.directory.capacity", this, d -> d.stats(true)).register(meterRegistry);
+    }
+
+    // true si está habilitado y ya terminó la primera carga
+    public boolean isReady() {
+        long stamp = lock.tryOptimisticRead();
+        boolean ready = nombres != null;
+        if (lock.validate(stamp)) {
+            return ready;
+        }
+        stamp = lock.readLock();
+        try {
+            return nombres != null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Nombre del usuario o null si no existe. Lectura optimista sin bloquear; si coincidió con una
+    // escritura (o la vio a medias) se repite con el lock de lectura.
+    public String get(int idUsuario) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                IntStringMap actual = nombres;
+                String nombre = actual == null ? null : actual.get(idUsuario);
+                if (lock.validate(stamp)) {
+                    return nombre;
+                }
+            } catch (RuntimeException e) {
+                // arreglos a medio redimensionar: se reintenta con lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return nombres == null ? null : nombres.get(idUsuario);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Alta o cambio de nombre; se aplica al confirmar la transacción
+    public void put(Integer idUsuario, String nombre) {
+        if (!enabled || idUsuario == null) {
+            return;
+        }
+        afterCommit(new Change(idUsuario, nombre == null ? null : nombre.intern()));
+    }
+
+    public void remove(Integer idUsuario) {
+        if (!enabled || idUsuario == null) {
+            return;
+        }
+        afterCommit(new Change(idUsuario, null));
+    }
+
+    @Scheduled(fixedDelayString = "${usuario.nombre-directory.reload-interval:86400000}")
+    @Transactional  // el driver de PostgreSQL sólo usa cursor (fetch size) dentro de una transacción
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long stamp = lock.writeLock();
+        try {
+            pendingDuringReload = new ArrayList<>();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        IntStringMap next = null;
+        try {
+            Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuario", Long.class);
+            IntStringMap cargado = new IntStringMap((int) Math.min(Integer.MAX_VALUE / 2, Math.max(MIN_EXPECTED, (total == null ? 0 : total) * 5 / 4)));
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("SELECT id_usuario, nombre FROM usuario WHERE nombre IS NOT NULL");
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                cargado.put(rs.getInt(1), rs.getString(2).intern());
+            });
+            next = cargado;
+        } finally {
+            stamp = lock.writeLock();
+            try {
+                if (next != null) {
+                    // Los cambios confirmados mientras se leía la tabla ganan sobre lo leído
+                    for (Change change : pendingDuringReload) {
+                        applyTo(next, change);
+                    }
+                    nombres = next;
+                }
+                pendingDuringReload = null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        log.info("Directorio de nombres cargado: {} usuarios, {} posiciones, {} ms",
+            next.size(), next.capacity(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void afterCommit(Change change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Change change) {
+        long stamp = lock.writeLock();
+        try {
+            if (nombres != null) {
+                applyTo(nombres, change);
+            }
+            if (pendingDuringReload != null) {
+                pendingDuringReload.add(change);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static void applyTo(IntStringMap map, Change change) {
+        if (change.nombre() == null) {
+            map.remove(change.idUsuario());
+        } else {
+            map.put(change.idUsuario(), change.nombre());
+        }
+    }
+
+    private double stats(boolean capacity) {
+        long stamp = lock.readLock();
+        try {
+            return nombres == null ? 0 : capacity ? nombres.capacity() : nombres.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
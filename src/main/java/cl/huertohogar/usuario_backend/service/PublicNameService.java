@@ -0,0 +1,172 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+// Primer nombre público de los usuarios (autores de comentarios). Un lote de ids se resuelve con el cache
+// y una sola consulta (id_usuario = ANY(?)) que trae sólo id y nombre, sin cargar entidades.
+// Las entradas se descartan al cambiar o borrar el usuario, en este nodo o en otro (CacheInvalidationService).
+// Aparte del cache, el Cache-Control público permite que un navegador o CDN repita un nombre viejo hasta
+// usuario.public-nombres.cache-max-age segundos.
+@Service
+public class PublicNameService {
+
+    private static final String NOMBRES_SQL = "SELECT id_usuario, nombre FROM usuario WHERE id_usuario = ANY(?)";
+    private static final int VERSION_STRIPES = 1024;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Si está habilitado y cargado, responde todo sin cache ni base de datos
+    @Autowired
+    private PublicNameDirectory directory;
+
+    @Value("${usuario.public-nombres.cache-size:100000}")
+    private long cacheSize;
+
+    @Value("${usuario.public-nombres.cache-ttl:600000}")
+    private long cacheTtl;
+
+    private Cache<Integer, String> nombres;
+    // Versión por segmento de ids: evict la incrementa, y un nombre leído de la base sólo se cachea si la
+    // versión de su segmento no cambió desde antes de la consulta
+    private final AtomicLongArray versiones = new AtomicLongArray(VERSION_STRIPES);
+
+    @PostConstruct
+    void init() {
+        nombres = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Duration.ofMillis(cacheTtl))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nombres, "usuario.public-nombres");
+    }
+
+    // id -> nombre, en el orden pedido; los ids inexistentes no aparecen
+    public Map<Integer, String> findNombres(Collection<Integer> ids) {
+        Set<Integer> pedidos = new LinkedHashSet<>(ids);
+        pedidos.remove(null);
+        if (directory.isReady()) {
+            Map<Integer, String> resultado = new LinkedHashMap<>();
+            for (Integer id : pedidos) {
+                String nombre = directory.get(id);
+                if (nombre != null) {
+                    resultado.put(id, nombre);
+                }
+            }
+            return resultado;
+        }
+        Map<Integer, String> encontrados = new LinkedHashMap<>(nombres.getAllPresent(pedidos));
+
+        List<Integer> faltantes = new ArrayList<>();
+        for (Integer id : pedidos) {
+            if (!encontrados.containsKey(id)) {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            Map<Integer, Long> versionLeida = new HashMap<>();
+            for (Integer id : faltantes) {
+                versionLeida.put(id, versiones.get(stripe(id)));
+            }
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(NOMBRES_SQL);
+                Array array = con.createArrayOf("integer", faltantes.toArray());
+                ps.setArray(1, array);
+                return ps;
+            }, rs -> {
+                int id = rs.getInt(1);
+                String nombre = rs.getString(2);
+                if (nombre != null) {
+                    encontrados.put(id, nombre);
+                    cachear(id, nombre, versionLeida.get(id));
+                }
+            });
+        }
+
+        Map<Integer, String> resultado = new LinkedHashMap<>();
+        for (Integer id : pedidos) {
+            String nombre = encontrados.get(id);
+            if (nombre != null) {
+                resultado.put(id, nombre);
+            }
+        }
+        return resultado;
+    }
+
+    public String findNombre(int id) {
+        if (directory.isReady()) {
+            return directory.get(id);
+        }
+        return findNombres(List.of(id)).get(id);
+    }
+
+    // Descarta el nombre al confirmar la transacción: antes, una lectura concurrente todavía vería la fila
+    // anterior en la base. Una lectura que empezó antes del commit y termina después no vuelve a cachear el
+    // nombre viejo, porque la versión de su segmento ya cambió (ver cachear)
+    public void evict(Integer id) {
+        if (id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(id);
+                }
+            });
+        } else {
+            invalidate(id);
+        }
+    }
+
+    public void evictAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versiones.incrementAndGet(i);
+        }
+        nombres.invalidateAll();
+    }
+
+    // Primero la versión y después el invalidate: compute y invalidate se excluyen por llave, así que o el
+    // compute ve la versión nueva y no guarda, o guarda antes y el invalidate lo borra
+    private void invalidate(Integer id) {
+        versiones.incrementAndGet(stripe(id));
+        nombres.invalidate(id);
+    }
+
+    private void cachear(Integer id, String nombre, long versionLeida) {
+        nombres.asMap().compute(id, (llave, actual) ->
+            versiones.get(stripe(llave)) == versionLeida ? nombre : actual);
+    }
+
+    private static int stripe(int id) {
+        return (id ^ (id >>> 16)) & (VERSION_STRIPES - 1);
+    }
+}
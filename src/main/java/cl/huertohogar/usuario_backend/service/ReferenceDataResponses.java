@@ -0,0 +1,53 @@
+package cl.huertohogar.usuario_backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import cl.huertohogar.usuario_backend.util.PrecompressedJson;
+
+// Listas de regiones y ciudades ya serializadas a JSON (y comprimidas), para no pasar por Jackson en cada
+// request. Se regeneran sólo cuando cambia la versión de la copia en memoria (ReferenceDataService).
+@Service
+public class ReferenceDataResponses {
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private record Payloads(long version, PrecompressedJson regiones, PrecompressedJson ciudades) {
+    }
+
+    private volatile Payloads payloads;
+
+    public PrecompressedJson regiones() {
+        return payloads().regiones();
+    }
+
+    public PrecompressedJson ciudades() {
+        return payloads().ciudades();
+    }
+
+    // Si dos requests ven una versión nueva a la vez, ambas serializan la misma foto; el resultado es idéntico
+    private Payloads payloads() {
+        ReferenceDataService.Snapshot snapshot = referenceDataService.current();
+        Payloads actual = payloads;
+        if (actual == null || actual.version() != snapshot.version()) {
+            actual = new Payloads(snapshot.version(), serialize(snapshot.regiones()), serialize(snapshot.ciudades()));
+            payloads = actual;
+        }
+        return actual;
+    }
+
+    private PrecompressedJson serialize(Object value) {
+        try {
+            return PrecompressedJson.of(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar los datos de referencia", e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import cl.huertohogar.usuario_backend.model.Ciudad;
+import cl.huertohogar.usuario_backend.model.Region;
+import cl.huertohogar.usuario_backend.repository.CiudadRepository;
+import cl.huertohogar.usuario_backend.repository.RegionRepository;
+import jakarta.annotation.PostConstruct;
+
+// Copia inmutable en memoria de regiones y ciudades (tablas chicas y casi estáticas que se leen en cada
+// formulario de registro/dirección). Las lecturas no usan locks ni van a la base de datos.
+// Cada escritura hecha por RegionService/CiudadService reemplaza la copia completa al confirmar la
+// transacción. Los cambios hechos en otros nodos llegan por CacheInvalidationService (LISTEN/NOTIFY) y,
+// como respaldo, con una recarga periódica desde la base.
+@Service
+public class ReferenceDataService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataService.class);
+
+    @Autowired
+    private RegionRepository regionRepository;
+
+    @Autowired
+    private CiudadRepository ciudadRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.of(List.of(), List.of(), 0));
+    // Cambios locales aplicados; una recarga que empezó antes de un cambio no lo pisa
+    private final AtomicLong localChanges = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    public Snapshot current() {
+        return snapshot.get();
+    }
+
+    // Relee ambas tablas (2 consultas; las ciudades traen su región en el mismo JOIN)
+    @Scheduled(fixedDelayString = "${referencia.reload-interval:300000}", initialDelayString = "${referencia.reload-interval:300000}")
+    public void reload() {
+        try {
+            long changesBefore = localChanges.get();
+            Snapshot actual = snapshot.get();
+            Snapshot recargado = Snapshot.of(regionRepository.findAll(), ciudadRepository.findAllWithRegion(), actual.version() + 1);
+            if (recargado.sameDataAs(actual)) {
+                return;  // sin cambios: se conserva la versión (y las respuestas ya serializadas)
+            }
+            if (localChanges.get() == changesBefore && snapshot.compareAndSet(actual, recargado)) {
+                log.debug("Datos de referencia recargados: {} regiones, {} ciudades",
+                    recargado.regiones().size(), recargado.ciudades().size());
+            }
+        } catch (RuntimeException e) {
+            // Se mantiene la copia anterior; se reintenta en el próximo intervalo
+            log.warn("No se pudieron recargar regiones y ciudades", e);
+        }
+    }
+
+    public void regionSaved(Region region) {
+        Region copia = new Region(region.getIdRegion(), region.getNombreRegion());
+        afterCommit(s -> s.with(replace(s.regiones(), copia, Region::getIdRegion), s.ciudades()));
+    }
+
+    public void regionDeleted(Integer idRegion) {
+        afterCommit(s -> s.with(remove(s.regiones(), idRegion, Region::getIdRegion), s.ciudades()));
+    }
+
+    public void ciudadSaved(Ciudad ciudad) {
+        Region region = ciudad.getRegion() == null ? null : new Region(ciudad.getRegion().getIdRegion(), ciudad.getRegion().getNombreRegion());
+        Ciudad copia = new Ciudad(ciudad.getIdCiudad(), ciudad.getNombreCiudad(), region);
+        afterCommit(s -> s.with(s.regiones(), replace(s.ciudades(), copia, Ciudad::getIdCiudad)));
+    }
+
+    public void ciudadDeleted(Integer idCiudad) {
+        afterCommit(s -> s.with(s.regiones(), remove(s.ciudades(), idCiudad, Ciudad::getIdCiudad)));
+    }
+
+    private void afterCommit(UnaryOperator<Snapshot> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(UnaryOperator<Snapshot> change) {
+        localChanges.incrementAndGet();
+        snapshot.updateAndGet(change);
+    }
+
+    private static <T> List<T> replace(List<T> items, T item, Function<T, Integer> id) {
+        List<T> copia = remove(items, id.apply(item), id);
+        copia.add(item);
+        return copia;
+    }
+
+    private static <T> List<T> remove(List<T> items, Integer itemId, Function<T, Integer> id) {
+        List<T> copia = new ArrayList<>(items.size() + 1);
+        for (T existing : items) {
+            if (!id.apply(existing).equals(itemId)) {
+                copia.add(existing);
+            }
+        }
+        return copia;
+    }
+
+    // Foto inmutable: listas ordenadas por id, arreglos indexados por id y ciudades agrupadas por región.
+    // Las entidades son copias desconectadas de JPA; no deben modificarse.
+    public static final class Snapshot {
+        private final List<Region> regiones;
+        private final List<Ciudad> ciudades;
+        private final Region[] regionById;
+        private final Ciudad[] ciudadById;
+        private final List<Ciudad>[] ciudadesByRegion;
+        private final long version;
+
+        @SuppressWarnings("unchecked")
+        private Snapshot(List<Region> regiones, List<Ciudad> ciudades, long version) {
+            this.version = version;
+            this.regionById = new Region[maxId(regiones, Region::getIdRegion) + 1];
+            List<Region> regionesCopia = new ArrayList<>(regiones.size());
+            for (Region r : regiones) {
+                Region copia = new Region(r.getIdRegion(), r.getNombreRegion());
+                regionById[copia.getIdRegion()] = copia;
+                regionesCopia.add(copia);
+            }
+            regionesCopia.sort(Comparator.comparing(Region::getIdRegion));
+
+            this.ciudadById = new Ciudad[maxId(ciudades, Ciudad::getIdCiudad) + 1];
+            List<Ciudad> ciudadesCopia = new ArrayList<>(ciudades.size());
+            List<List<Ciudad>> porRegion = new ArrayList<>(Collections.nCopies(regionById.length, null));
+            for (Ciudad c : ciudades) {
+                // La región se toma siempre de esta misma foto (así un cambio de nombre se ve en sus ciudades)
+                Integer idRegion = c.getRegion() == null ? null : c.getRegion().getIdRegion();
+                Region region = idRegion != null && idRegion < regionById.length ? regionById[idRegion] : null;
+                Ciudad copia = new Ciudad(c.getIdCiudad(), c.getNombreCiudad(), region != null ? region : c.getRegion());
+                ciudadById[copia.getIdCiudad()] = copia;
+                ciudadesCopia.add(copia);
+                if (region != null) {
+                    if (porRegion.get(idRegion) == null) {
+                        porRegion.set(idRegion, new ArrayList<>());
+                    }
+                    porRegion.get(idRegion).add(copia);
+                }
+            }
+            ciudadesCopia.sort(Comparator.comparing(Ciudad::getIdCiudad));
+
+            this.ciudadesByRegion = new List[regionById.length];
+            for (int i = 0; i < porRegion.size(); i++) {
+                List<Ciudad> lista = porRegion.get(i);
+                if (lista != null) {
+                    lista.sort(Comparator.comparing(Ciudad::getIdCiudad));
+                    ciudadesByRegion[i] = List.copyOf(lista);
+                }
+            }
+            this.regiones = List.copyOf(regionesCopia);
+            this.ciudades = List.copyOf(ciudadesCopia);
+        }
+
+        static Snapshot of(List<Region> regiones, List<Ciudad> ciudades, long version) {
+            return new Snapshot(regiones, ciudades, version);
+        }
+
+        Snapshot with(List<Region> regiones, List<Ciudad> ciudades) {
+            return new Snapshot(regiones, ciudades, version + 1);
+        }
+
+        public List<Region> regiones() {
+            return regiones;
+        }
+
+        public List<Ciudad> ciudades() {
+            return ciudades;
+        }
+
+        public Region region(Integer idRegion) {
+            return idRegion != null && idRegion >= 0 && idRegion < regionById.length ? regionById[idRegion] : null;
+        }
+
+        public Ciudad ciudad(Integer idCiudad) {
+            return idCiudad != null && idCiudad >= 0 && idCiudad < ciudadById.length ? ciudadById[idCiudad] : null;
+        }
+
+        public List<Ciudad> ciudadesDeRegion(Integer idRegion) {
+            List<Ciudad> lista = idRegion != null && idRegion >= 0 && idRegion < ciudadesByRegion.length ? ciudadesByRegion[idRegion] : null;
+            return lista == null ? List.of() : lista;
+        }
+
+        // Aumenta con cada cambio o recarga con datos distintos
+        public long version() {
+            return version;
+        }
+
+        boolean sameDataAs(Snapshot other) {
+            return regiones.equals(other.regiones) && ciudades.equals(other.ciudades);
+        }
+
+        private static <T> int maxId(List<T> items, Function<T, Integer> id) {
+            int max = 0;
+            for (T item : items) {
+                max = Math.max(max, id.apply(item));
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import cl.huertohogar.usuario_backend.config.JwtProperties;
+import cl.huertohogar.usuario_backend.exception.AuthenticationFailedException;
+import cl.huertohogar.usuario_backend.model.RefreshToken;
+import cl.huertohogar.usuario_backend.model.Usuario;
+import cl.huertohogar.usuario_backend.repository.RefreshTokenRepository;
+import cl.huertohogar.usuario_backend.repository.UsuarioRepository;
+import jakarta.transaction.Transactional;
+
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int CLEANUP_BATCH_SIZE = 1000;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    // Resultado de una rotación: el usuario dueño del token y el nuevo refresh token en claro
+    public record Rotation(Usuario usuario, String refreshToken) {
+    }
+
+    // CREATE - Emitir un refresh token para un login nuevo (nueva familia)
+    public String issue(Integer usuarioId) {
+        return create(usuarioRepository.getReferenceById(usuarioId), UUID.randomUUID().toString());
+    }
+
+    // ROTAR - Cambia un refresh token válido por uno nuevo de la misma familia.
+    // Si se presenta un token ya usado, se asume robo y se revoca toda la familia.
+    @Transactional(dontRollbackOn = AuthenticationFailedException.class)
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new AuthenticationFailedException("Refresh token inválido");
+        }
+
+        RefreshToken token = refreshTokenRepository.findByTokenHashWithUsuario(hash(rawToken));
+        if (token == null) {
+            throw new AuthenticationFailedException("Refresh token inválido");
+        }
+
+        // markUsed es atómico: de dos renovaciones concurrentes con el mismo token sólo una gana
+        if (token.isRevoked() || refreshTokenRepository.markUsed(token.getIdRefreshToken()) == 0) {
+            refreshTokenRepository.revokeFamily(token.getFamilyId());
+            log.warn("Reuso de refresh token detectado para usuario {}, familia revocada", token.getUsuario().getIdUsuario());
+            throw new AuthenticationFailedException("Refresh token inválido");
+        }
+
+        if (token.getExpiresAt().isBefore(Instant.now())) {
+            throw new AuthenticationFailedException("Refresh token expirado");
+        }
+
+        String nuevo = create(token.getUsuario(), token.getFamilyId());
+        return new Rotation(token.getUsuario(), nuevo);
+    }
+
+    // REVOCAR - Invalida todos los refresh tokens de un usuario
+    public void revokeAll(Integer idUsuario) {
+        refreshTokenRepository.revokeAllByUsuario(idUsuario);
+    }
+
+    // DELETE - Borra los refresh tokens de un usuario (antes de eliminar al usuario)
+    public void deleteAllByUsuario(Integer idUsuario) {
+        refreshTokenRepository.deleteAllByUsuario(idUsuario);
+    }
+
+    // LIMPIEZA - Borra tokens expirados en lotes, cada lote en su propia transacción
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval:3600000}")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void deleteExpired() {
+        Instant now = Instant.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.deleteExpiredBatch(now, CLEANUP_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == CLEANUP_BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("Refresh tokens expirados eliminados: {}", total);
+        }
+    }
+
+    private String create(Usuario usuario, String familyId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant now = Instant.now();
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setUsuario(usuario);
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plusMillis(jwtProperties.getRefreshExpiration()));
+        token.setRevoked(false);
+        refreshTokenRepository.save(token);
+
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import cl.huertohogar.usuario_backend.exception.RegionNotFoundException;
 import cl.huertohogar.usuario_backend.exception.RegionNotValidException;
 import cl.huertohogar.usuario_backend.model.Region;
 import cl.huertohogar.usuario_backend.repository.RegionRepository;
+import cl.huertohogar.usuario_backend.util.PrecompressedJson;
 import jakarta.transaction.Transactional;
 
 @Service
@@ -18,6 +19,17 @@ public class RegionService {
     @Autowired
     private RegionRepository regionRepository;
 
+    // Lecturas desde la copia en memoria; las escrituras la actualizan al confirmar
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private ReferenceDataResponses referenceDataResponses;
+
+    // Avisa a los demás nodos para que actualicen su copia
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
     // CREATE 
     public Region save(Region region) {
         if (region == null) {
@@ -32,27 +44,50 @@ public class RegionService {
             throw new RegionNotValidException("Ya existe una región con el nombre: " + region.getNombreRegion());
         }
         
-        return regionRepository.save(region);
+        Region guardada = regionRepository.save(region);
+        referenceDataService.regionSaved(guardada);
+        cacheInvalidationService.publish(CacheInvalidationService.REGION, guardada.getIdRegion());
+        return guardada;
     }
 
     // READ 
+    @Transactional(Transactional.TxType.SUPPORTS)
     public List<Region> findAll() {
-        List<Region> regiones = regionRepository.findAll();
+        List<Region> regiones = referenceDataService.current().regiones();
         if (regiones.isEmpty()) {
             throw new RegionNotFoundException("No se encontraron regiones");
         }
         return regiones;
     }
 
+    // READ - Misma lista ya serializada a JSON y comprimida (GET sin pasar por Jackson)
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public PrecompressedJson findAllJson() {
+        if (referenceDataService.current().regiones().isEmpty()) {
+            throw new RegionNotFoundException("No se encontraron regiones");
+        }
+        return referenceDataResponses.regiones();
+    }
+
     // READ por ID
+    @Transactional(Transactional.TxType.SUPPORTS)
     public Region findById(Integer id) {
+        Region region = referenceDataService.current().region(id);
+        if (region == null) {
+            throw new RegionNotFoundException("Región no encontrada con id: " + id);
+        }
+        return region;
+    }
+
+    // Entidad administrada, para modificarla o borrarla
+    private Region findEntityById(Integer id) {
         return regionRepository.findById(id)
             .orElseThrow(() -> new RegionNotFoundException("Región no encontrada con id: " + id));
     }
 
     // UPDATE 
     public Region update(Integer id, Region regionActualizada) {
-        Region regionExistente = findById(id);
+        Region regionExistente = findEntityById(id);
         
         // Validaciones
         if (regionActualizada.getNombreRegion() == null || regionActualizada.getNombreRegion().trim().isEmpty()) {
@@ -68,12 +103,15 @@ public class RegionService {
         // Actualizar campos
         regionExistente.setNombreRegion(regionActualizada.getNombreRegion());
 
-        return regionRepository.save(regionExistente);
+        Region guardada = regionRepository.save(regionExistente);
+        referenceDataService.regionSaved(guardada);
+        cacheInvalidationService.publish(CacheInvalidationService.REGION, guardada.getIdRegion());
+        return guardada;
     }
 
     // PATCH 
     public Region partialUpdate(Integer id, Region regionActualizada) {
-        Region regionExistente = findById(id);
+        Region regionExistente = findEntityById(id);
         
         // Solo actualiza los campos que no son nulos
         if (regionActualizada.getIdRegion() != null) {
@@ -97,13 +135,18 @@ public class RegionService {
             regionExistente.setNombreRegion(regionActualizada.getNombreRegion());
         }
 
-        return regionRepository.save(regionExistente);
+        Region guardada = regionRepository.save(regionExistente);
+        referenceDataService.regionSaved(guardada);
+        cacheInvalidationService.publish(CacheInvalidationService.REGION, guardada.getIdRegion());
+        return guardada;
     }
 
     // DELETE 
     public void deleteById(Integer id) {
-        Region region = findById(id);
+        Region region = findEntityById(id);
         regionRepository.delete(region);
+        referenceDataService.regionDeleted(id);
+        cacheInvalidationService.publish(CacheInvalidationService.REGION, id);
     }
 
     // CONSULTAS PERSONALIZADAS
@@ -0,0 +1,138 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import cl.huertohogar.usuario_backend.dto.TokenVersionView;
+import cl.huertohogar.usuario_backend.model.Usuario;
+import cl.huertohogar.usuario_backend.repository.UsuarioRepository;
+import cl.huertohogar.usuario_backend.util.IntIntMap;
+import jakarta.annotation.PostConstruct;
+
+// Época de tokens por usuario, en memoria. Un JWT cuya época es menor a la del usuario quedó revocado
+// (cambio de rol o de contraseña). Sólo se guardan usuarios con época > 0, y el mapa se sincroniza
+// incrementalmente desde la columna token_version para que el resto de los nodos vea los cambios.
+// Se consulta en cada request autenticado: mapa de int (sin Integer) con lectura optimista, como
+// PublicNameDirectory; las escrituras (cambios de época) son raras.
+@Service
+public class TokenEpochService {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    // Margen para no perder cambios confirmados tarde respecto de su token_version_updated_at
+    @Value("${jwt.epoch-refresh-overlap:30000}")
+    private long overlapMillis;
+
+    private static final int EXPECTED_USERS = 1024;
+
+    private final StampedLock lock = new StampedLock();
+    // Guardado por lock
+    private final IntIntMap epochs = new IntIntMap(EXPECTED_USERS);
+    private volatile Instant lastSeen = Instant.EPOCH;
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    // Época vigente del usuario (0 si nunca cambió). Lectura optimista sin bloquear; si coincidió con una
+    // escritura (o la vio a medias) se repite con el lock de lectura.
+    public int current(Integer idUsuario) {
+        if (idUsuario == null) {
+            return 0;
+        }
+        int id = idUsuario;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                int epoch = epochs.get(id);
+                if (lock.validate(stamp)) {
+                    return epoch;
+                }
+            } catch (RuntimeException e) {
+                // arreglos a medio redimensionar: se reintenta con lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return epochs.get(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean isStale(Integer idUsuario, int tokenEpoch) {
+        return tokenEpoch < current(idUsuario);
+    }
+
+    // Incrementa la época del usuario (la entidad debe guardarse después).
+    // El mapa local se actualiza recién cuando la transacción confirma.
+    public void bump(Usuario usuario) {
+        int next = (usuario.getTokenVersion() == null ? 0 : usuario.getTokenVersion()) + 1;
+        usuario.setTokenVersion(next);
+        usuario.setTokenVersionUpdatedAt(Instant.now());
+
+        Integer idUsuario = usuario.getIdUsuario();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(idUsuario, next);
+                }
+            });
+        } else {
+            apply(idUsuario, next);
+        }
+    }
+
+    // Trae las épocas modificadas desde la última sincronización
+    @Scheduled(fixedDelayString = "${jwt.epoch-refresh:5000}", initialDelayString = "${jwt.epoch-refresh:5000}")
+    public void refresh() {
+        Instant since = lastSeen.equals(Instant.EPOCH) ? Instant.EPOCH : lastSeen.minusMillis(overlapMillis);
+        List<TokenVersionView> cambios = usuarioRepository.findTokenVersionsChangedSince(since);
+
+        Instant max = lastSeen;
+        long stamp = lock.writeLock();
+        try {
+            for (TokenVersionView cambio : cambios) {
+                applyLocked(cambio.getIdUsuario(), cambio.getTokenVersion());
+                if (cambio.getTokenVersionUpdatedAt().isAfter(max)) {
+                    max = cambio.getTokenVersionUpdatedAt();
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        lastSeen = max;
+    }
+
+    // Época leída de la base tras un aviso de otro nodo (ver CacheInvalidationService)
+    public void observe(Integer idUsuario, int epoch) {
+        apply(idUsuario, epoch);
+    }
+
+    private void apply(Integer idUsuario, Integer epoch) {
+        long stamp = lock.writeLock();
+        try {
+            applyLocked(idUsuario, epoch);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // La época sólo avanza: aplicar un valor viejo no tiene efecto
+    private void applyLocked(Integer idUsuario, Integer epoch) {
+        if (idUsuario != null && epoch != null && epoch > epochs.get(idUsuario)) {
+            epochs.put(idUsuario, epoch);
+        }
+    }
+}
@@ -1,47 +1,98 @@
 package cl.huertohogar.usuario_backend.service;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Base64;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Locale;
+import java.util.Map;
 
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import cl.huertohogar.usuario_backend.dto.UsuarioCredentials;
+import cl.huertohogar.usuario_backend.dto.UsuarioPageResponse;
 import cl.huertohogar.usuario_backend.exception.AuthenticationFailedException;
 import cl.huertohogar.usuario_backend.exception.EmailAlreadyExistsException;
+import cl.huertohogar.usuario_backend.exception.RutAlreadyExistsException;
 import cl.huertohogar.usuario_backend.exception.UsuarioNotFoundException;
 import cl.huertohogar.usuario_backend.exception.UsuarioNotValidException;
 import cl.huertohogar.usuario_backend.model.Usuario;
 import cl.huertohogar.usuario_backend.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 
 @Service
 @Transactional
 public class UsuarioService {
+
+    private static final Logger log = LoggerFactory.getLogger(UsuarioService.class);
     
     @Autowired
     private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenEpochService tokenEpochService;
     
-    // BCrypt encoder para cifrado de contraseñas
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    // BCrypt en un pool dedicado y acotado (no en los hilos de Tomcat)
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private PasswordRehashService passwordRehashService;
+
+    @Autowired
+    private EmailAvailabilityService emailAvailabilityService;
+
+    // Avisa a los demás nodos (cache de segundo nivel, filtro de emails, épocas de tokens)
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private PublicNameService publicNameService;
+
+    @Autowired
+    private PublicNameDirectory publicNameDirectory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordPolicyService passwordPolicyService;
     
-    // Patrón para validar contraseñas seguras
-    // Mínimo 8 caracteres, al menos una mayúscula, una minúscula, un número y un carácter especial
-    private static final Pattern PASSWORD_PATTERN = Pattern.compile(
-        "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$"
-    );
+    private static final String CURSOR_PREFIX = "id:";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${usuario.listado.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${usuario.listado.max-page-size:200}")
+    private int maxPageSize;
+
+    private static final String INSERT_USUARIO_SQL =
+        "INSERT INTO usuario (nombre, snombre, apaterno, amaterno, rut, dv, fecha_nacimiento, id_region, "
+        + "direccion, email, telefono, password_hashed, rol, token_version, fecha_creacion) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+        + "ON CONFLICT DO NOTHING RETURNING id_usuario";
 
  // CREATE - Crear un nuevo usuario
     public Usuario save(Usuario usuario) {
     
-    // DEBUG: Ver qué llega
-    System.out.println("=== DEBUG USUARIO ===");
-    System.out.println("Usuario: " + usuario);
-    System.out.println("Nombre: " + usuario.getNombre());
-    System.out.println("APaterno: " + usuario.getAPaterno());
-    System.out.println("AMaterno: " + usuario.getAMaterno());
-    System.out.println("===================");
-    
     // Validar campos obligatorios
     if (usuario.getNombre() == null || usuario.getNombre().trim().isEmpty()) {
         throw new UsuarioNotValidException("El nombre del usuario es obligatorio");
@@ -83,35 +134,130 @@ public class UsuarioService {
         throw new UsuarioNotValidException("La contraseña del usuario es obligatoria");
     }
     
-    // ✅ VALIDAR que el email no esté en uso
-    if (usuarioRepository.existsByEmail(usuario.getEmail())) {
-        throw new EmailAlreadyExistsException("El email '" + usuario.getEmail() + "' ya está registrado en el sistema");
-    }
-    
     // ✅ SEGURIDAD: Forzar rol USER siempre en creación
     usuario.setRol("USER");
     
-    // Validar formato de contraseña segura
-    if (!isValidPassword(usuario.getPasswordHashed())) {
-        throw new UsuarioNotValidException(
-            "La contraseña debe tener al menos 8 caracteres, una mayúscula, una minúscula, un número y un carácter especial (@$!%*?&)"
-        );
-    }
+    // Validar formato de contraseña segura (y que no esté filtrada)
+    requireValidPassword(usuario.getPasswordHashed());
     
     // Hashear la contraseña antes de guardarla
-    String hashedPassword = passwordEncoder.encode(usuario.getPasswordHashed());
+    String hashedPassword = passwordHashingService.encode(usuario.getPasswordHashed());
     usuario.setPasswordHashed(hashedPassword);
     
-    return usuarioRepository.save(usuario);
+    // Email (sin distinguir mayúsculas, índice uk_usuario_email_lower) y RUT duplicados se detectan en el
+    // mismo INSERT, sin consulta previa
+    usuario.setTokenVersion(0);
+    usuario.setFechaCreacion(Instant.now());
+    usuario.setIdUsuario(insertUsuario(usuario));
+    emailAvailabilityService.add(usuario.getEmail());
+    publicNameDirectory.put(usuario.getIdUsuario(), usuario.getNombre());
+    cacheInvalidationService.publish(CacheInvalidationService.USUARIO, usuario.getIdUsuario());
+    return usuario;
     }
 
-    // READ 
-    public List<Usuario> findAll() {
-        List<Usuario> usuarios = usuarioRepository.findAll();
-        if (usuarios.isEmpty()) {
-            throw new UsuarioNotFoundException("No se encontraron usuarios");
+    // INSERT ... ON CONFLICT DO NOTHING RETURNING: un solo viaje a la base en el caso normal, y un email o
+    // RUT repetido no aborta la transacción. Sólo si hubo conflicto se consulta cuál de los dos fue; el email
+    // se compara como lo hace el índice único, así "Foo@x.cl" choca con "foo@x.cl" y responde 409.
+    private Integer insertUsuario(Usuario usuario) {
+        for (int intento = 0; intento < 2; intento++) {
+            List<Integer> ids = jdbcTemplate.queryForList(INSERT_USUARIO_SQL, Integer.class,
+                usuario.getNombre(), usuario.getSNombre(), usuario.getAPaterno(), usuario.getAMaterno(),
+                usuario.getRut(), usuario.getDv(), usuario.getFechaNacimiento(), usuario.getIdRegion(),
+                usuario.getDireccion(), usuario.getEmail(), usuario.getTelefono(), usuario.getPasswordHashed(),
+                usuario.getRol(), usuario.getTokenVersion(), Timestamp.from(usuario.getFechaCreacion()));
+            if (!ids.isEmpty()) {
+                return ids.get(0);
+            }
+
+            // Una fila por registro en conflicto: true si choca por email, false si sólo por RUT
+            List<Boolean> conflictos = jdbcTemplate.queryForList(
+                "SELECT lower(email) = lower(?) FROM usuario WHERE lower(email) = lower(?) OR rut = ?", Boolean.class,
+                usuario.getEmail(), usuario.getEmail(), usuario.getRut());
+            if (conflictos.contains(Boolean.TRUE)) {
+                throw new EmailAlreadyExistsException("El email '" + usuario.getEmail() + "' ya está registrado en el sistema");
+            }
+            if (!conflictos.isEmpty()) {
+                throw new RutAlreadyExistsException("El RUT '" + usuario.getRut() + "' ya está registrado en el sistema");
+            }
+            // El registro en conflicto se borró entre ambas consultas: se reintenta una vez
         }
-        return usuarios;
+        throw new IllegalStateException("No se pudo registrar el usuario con email: " + usuario.getEmail());
+    }
+
+    // READ paginado por keyset: WHERE <filtros> AND id_usuario > <último id de la página anterior>
+    // ORDER BY id_usuario LIMIT n. Usa el índice (filtro, id_usuario), así una página profunda cuesta lo
+    // mismo que la primera (con OFFSET la base recorre y descarta todas las filas anteriores).
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public UsuarioPageResponse findPage(String cursor, Integer limit, String rol, Integer idRegion,
+            LocalDate creadoDesde, LocalDate creadoHasta) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new UsuarioNotValidException("El tamaño de página debe estar entre 1 y " + maxPageSize);
+        }
+
+        StringBuilder jpql = new StringBuilder("SELECT u FROM Usuario u WHERE u.idUsuario > :despuesDe");
+        if (rol != null) {
+            jpql.append(" AND u.rol = :rol");
+        }
+        if (idRegion != null) {
+            jpql.append(" AND u.idRegion = :idRegion");
+        }
+        if (creadoDesde != null) {
+            jpql.append(" AND u.fechaCreacion >= :desde");
+        }
+        if (creadoHasta != null) {
+            jpql.append(" AND u.fechaCreacion < :hasta");
+        }
+        jpql.append(" ORDER BY u.idUsuario");
+
+        TypedQuery<Usuario> query = entityManager.createQuery(jpql.toString(), Usuario.class)
+            .setParameter("despuesDe", decodeCursor(cursor))
+            // Una fila extra indica si hay página siguiente, sin otra consulta
+            .setMaxResults(pageSize + 1)
+            // Sólo lectura: Hibernate no guarda copias para detectar cambios
+            .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (rol != null) {
+            query.setParameter("rol", rol.toUpperCase(Locale.ROOT));
+        }
+        if (idRegion != null) {
+            query.setParameter("idRegion", idRegion);
+        }
+        // Fechas en UTC; creadoHasta es inclusivo (hasta el final de ese día)
+        if (creadoDesde != null) {
+            query.setParameter("desde", creadoDesde.atStartOfDay(ZoneOffset.UTC).toInstant());
+        }
+        if (creadoHasta != null) {
+            query.setParameter("hasta", creadoHasta.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        }
+
+        List<Usuario> usuarios = query.getResultList();
+        String nextCursor = null;
+        if (usuarios.size() > pageSize) {
+            usuarios = usuarios.subList(0, pageSize);
+            nextCursor = encodeCursor(usuarios.get(pageSize - 1).getIdUsuario());
+        }
+        return new UsuarioPageResponse(usuarios, nextCursor, pageSize);
+    }
+
+    // El cursor es opaco para el cliente: base64url de "id:<último id>"
+    private static String encodeCursor(Integer idUsuario) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((CURSOR_PREFIX + idUsuario).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // cae al error de abajo (NumberFormatException también es IllegalArgumentException)
+        }
+        throw new UsuarioNotValidException("Cursor de paginación inválido");
     }
 
     // READ por ID
@@ -169,7 +315,13 @@ public class UsuarioService {
         usuarioExistente.setEmail(usuarioActualizado.getEmail());
         usuarioExistente.setTelefono(usuarioActualizado.getTelefono());
         usuarioExistente.setPasswordHashed(usuarioActualizado.getPasswordHashed());
+        emailAvailabilityService.add(usuarioExistente.getEmail());
+
+        publicNameService.evict(usuarioExistente.getIdUsuario());
+
+        publicNameDirectory.put(usuarioExistente.getIdUsuario(), usuarioExistente.getNombre());
 
+        cacheInvalidationService.publish(CacheInvalidationService.USUARIO, usuarioExistente.getIdUsuario());
         return usuarioRepository.save(usuarioExistente);
     }
 
@@ -222,6 +374,7 @@ public class UsuarioService {
 
         if (usuarioActualizado.getEmail() != null) {
             usuarioExistente.setEmail(usuarioActualizado.getEmail());
+            emailAvailabilityService.add(usuarioExistente.getEmail());
         }
 
         if (usuarioActualizado.getTelefono() != null) {
@@ -232,13 +385,22 @@ public class UsuarioService {
             usuarioExistente.setPasswordHashed(usuarioActualizado.getPasswordHashed());
         }
 
+        publicNameService.evict(usuarioExistente.getIdUsuario());
+
+        publicNameDirectory.put(usuarioExistente.getIdUsuario(), usuarioExistente.getNombre());
+
+        cacheInvalidationService.publish(CacheInvalidationService.USUARIO, usuarioExistente.getIdUsuario());
         return usuarioRepository.save(usuarioExistente);
     }
 
     // DELETE 
     public void deleteById(Integer id) {
         Usuario usuario = findById(id);
+        refreshTokenService.deleteAllByUsuario(id);
         usuarioRepository.delete(usuario);
+        publicNameService.evict(id);
+        publicNameDirectory.remove(id);
+        cacheInvalidationService.publish(CacheInvalidationService.USUARIO, id);
     }
 
     // CONSULTAS RANDOM
@@ -272,10 +434,11 @@ public class UsuarioService {
     }
 
     // AUTENTICACIÓN - Autenticar por EMAIL y contraseña (recomendado)
+    @Transactional(Transactional.TxType.SUPPORTS)
     public boolean authenticateByEmail(String email, String plainPassword) {
         try {
-            Usuario usuario = findByEmail(email);
-            return verifyPassword(plainPassword, usuario.getPasswordHashed());
+            UsuarioCredentials credenciales = findCredentialsByEmail(email);
+            return verifyPassword(plainPassword, credenciales.passwordHashed());
         } catch (UsuarioNotFoundException e) {
             return false;
         }
@@ -288,49 +451,85 @@ public class UsuarioService {
         }
     }
 
-    // AUTENTICACIÓN - Autenticar por EMAIL con manejo de excepciones
-    public Usuario authenticateByEmailOrThrow(String email, String plainPassword) {
-        Usuario usuario = findByEmail(email);
-        if (!verifyPassword(plainPassword, usuario.getPasswordHashed())) {
+    // AUTENTICACIÓN - Autenticar por EMAIL con manejo de excepciones.
+    // Sólo carga la proyección de credenciales y no abre una transacción propia: la consulta es de sólo
+    // lectura y la conexión no queda tomada mientras se verifica el hash.
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public UsuarioCredentials authenticateByEmailOrThrow(String email, String plainPassword) {
+        UsuarioCredentials credenciales = findCredentialsByEmail(email);
+        if (!verifyPassword(plainPassword, credenciales.passwordHashed())) {
             throw new AuthenticationFailedException("Credenciales inválidas");
         }
+        // Si el hash usa otro algoritmo o costo que el configurado, se recalcula y guarda en segundo plano
+        passwordRehashService.rehashIfNeeded(credenciales.idUsuario(), plainPassword, credenciales.passwordHashed());
+        return credenciales;
+    }
+
+    // READ - Perfil completo para la respuesta del login. Se carga como sólo lectura: con open-in-view el
+    // persistence context sigue abierto hasta el final del request, pero Hibernate no guarda el snapshot para
+    // dirty checking (y un cambio accidental en la entidad no se escribiría)
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public Usuario findProfileById(Integer id) {
+        Usuario usuario = entityManager.find(Usuario.class, id, Map.of(HibernateHints.HINT_READ_ONLY, true));
+        if (usuario == null) {
+            throw new UsuarioNotFoundException("Usuario no encontrado con id: " + id);
+        }
         return usuario;
     }
 
+    // UTILIDAD - Credenciales por email sin distinguir mayúsculas. El índice único uk_usuario_email_lower
+    // garantiza a lo más una cuenta; si aun así hay varias (base sin migrar) no se elige ninguna al azar.
+    private UsuarioCredentials findCredentialsByEmail(String email) {
+        List<UsuarioCredentials> encontrados = email == null ? List.of() : usuarioRepository.findCredentialsByEmail(email);
+        if (encontrados.isEmpty()) {
+            throw new UsuarioNotFoundException("No se encontró usuario con email: " + email);
+        }
+        if (encontrados.size() > 1) {
+            log.error("Login rechazado: {} cuentas con el email '{}' (sólo difieren en mayúsculas), hay que unificarlas",
+                encontrados.size(), email);
+            throw new AuthenticationFailedException("Credenciales inválidas");
+        }
+        return encontrados.get(0);
+    }
+
+    // VALIDACIÓN - Email libre para registro (el filtro de Bloom evita la consulta en la mayoría de los casos)
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public boolean isEmailAvailable(String email) {
+        if (email == null || email.trim().isEmpty()) {
+            throw new UsuarioNotValidException("El correo electrónico es obligatorio");
+        }
+        return !emailAvailabilityService.isRegistered(email);
+    }
+
     // VALIDACIÓN - Verificar si una contraseña cumple con los requisitos de seguridad
     public boolean isValidPassword(String password) {
-        if (password == null || password.isEmpty()) {
-            return false;
+        return passwordPolicyService.evaluate(password).valid();
+    }
+
+    // VALIDACIÓN - Requisitos, fortaleza y filtración en una sola evaluación
+    public PasswordPolicyService.Evaluation evaluatePassword(String password) {
+        return passwordPolicyService.evaluate(password);
+    }
+
+    // VALIDACIÓN - Lanza UsuarioNotValidException si la contraseña no cumple la política
+    private void requireValidPassword(String password) {
+        PasswordPolicyService.Evaluation evaluacion = passwordPolicyService.evaluate(password);
+        if (evaluacion.breached()) {
+            throw new UsuarioNotValidException(PasswordPolicyService.BREACHED_MESSAGE);
+        }
+        if (!evaluacion.valid()) {
+            throw new UsuarioNotValidException(PasswordPolicyService.REQUIREMENTS_MESSAGE);
         }
-        return PASSWORD_PATTERN.matcher(password).matches();
     }
 
     // UTILIDAD - Verificar si una contraseña en texto plano coincide con el hash
     private boolean verifyPassword(String plainPassword, String hashedPassword) {
-        return passwordEncoder.matches(plainPassword, hashedPassword);
+        return passwordHashingService.matches(plainPassword, hashedPassword);
     }
 
     // UTILIDAD - Obtener la fortaleza de la contraseña
     public String getPasswordStrength(String password) {
-        if (password == null || password.length() < 8) {
-            return "DÉBIL";
-        }
-        
-        int strength = 0;
-        if (password.matches(".*[a-z].*")) strength++;
-        if (password.matches(".*[A-Z].*")) strength++;
-        if (password.matches(".*\\d.*")) strength++;
-        if (password.matches(".*[@$!%*?&].*")) strength++;
-        
-        if (strength >= 4 && password.length() >= 12) {
-            return "MUY FUERTE";
-        } else if (strength >= 4) {
-            return "FUERTE";
-        } else if (strength >= 3) {
-            return "MODERADA";
-        } else {
-            return "DÉBIL";
-        }
+        return passwordPolicyService.evaluate(password).strength();
     }
 
     // CAMBIAR CONTRASEÑA - Cambiar contraseña verificando la anterior
@@ -347,11 +546,7 @@ public class UsuarioService {
             throw new UsuarioNotValidException("La nueva contraseña es obligatoria");
         }
         
-        if (!isValidPassword(newPassword)) {
-            throw new UsuarioNotValidException(
-                "La contraseña debe tener al menos 8 caracteres, una mayúscula, una minúscula, un número y un carácter especial (@$!%*?&)"
-            );
-        }
+        requireValidPassword(newPassword);
         
         // No permitir que la nueva contraseña sea igual a la anterior
         if (verifyPassword(newPassword, usuario.getPasswordHashed())) {
@@ -359,9 +554,14 @@ public class UsuarioService {
         }
         
         // Cifrar y actualizar
-        String hashedPassword = passwordEncoder.encode(newPassword);
+        String hashedPassword = passwordHashingService.encode(newPassword);
         usuario.setPasswordHashed(hashedPassword);
+
+        // Revocar los tokens emitidos con la contraseña anterior
+        tokenEpochService.bump(usuario);
+        refreshTokenService.revokeAll(idUsuario);
         
+        cacheInvalidationService.publish(CacheInvalidationService.USUARIO, usuario.getIdUsuario());
         return usuarioRepository.save(usuario);
     }
 
@@ -373,28 +573,33 @@ public class UsuarioService {
             throw new UsuarioNotValidException("La nueva contraseña es obligatoria");
         }
         
-        if (!isValidPassword(newPassword)) {
-            throw new UsuarioNotValidException(
-                "La contraseña debe tener al menos 8 caracteres, una mayúscula, una minúscula, un número y un carácter especial (@$!%*?&)"
-            );
-        }
+        requireValidPassword(newPassword);
         
         // Cifrar y actualizar
-        String hashedPassword = passwordEncoder.encode(newPassword);
+        String hashedPassword = passwordHashingService.encode(newPassword);
         usuario.setPasswordHashed(hashedPassword);
+
+        // Revocar los tokens emitidos con la contraseña anterior
+        tokenEpochService.bump(usuario);
+        refreshTokenService.revokeAll(idUsuario);
         
+        cacheInvalidationService.publish(CacheInvalidationService.USUARIO, usuario.getIdUsuario());
         return usuarioRepository.save(usuario);
     }
 
     public Usuario promoverAAdmin(Integer id) {
         Usuario usuario = findById(id);
         usuario.setRol("ADMIN");
+        tokenEpochService.bump(usuario);  // Los tokens con el rol anterior dejan de ser válidos
+        cacheInvalidationService.publish(CacheInvalidationService.USUARIO, usuario.getIdUsuario());
         return usuarioRepository.save(usuario);  // ✅ Usa directamente el repo sin validaciones de creación
     }
 
     public Usuario degradarAUser(Integer id) {
         Usuario usuario = findById(id);
         usuario.setRol("USER");
+        tokenEpochService.bump(usuario);  // Los tokens con el rol anterior dejan de ser válidos
+        cacheInvalidationService.publish(CacheInvalidationService.USUARIO, usuario.getIdUsuario());
         return usuarioRepository.save(usuario);  // ✅ Usa directamente el repo
     }
 }
@@ -0,0 +1,93 @@
+package cl.huertohogar.usuario_backend.util;
+
+// Mapa int -> int con direccionamiento abierto (sondeo lineal) sobre dos arreglos paralelos, igual que
+// IntStringMap: sin Entry ni Integer, ni al guardar ni al consultar. El valor 0 marca una posición vacía,
+// así que sólo se guardan valores distintos de 0. No es seguro para varios hilos: quien lo use debe sincronizar.
+public final class IntIntMap {
+
+    private static final float MAX_LOAD = 0.7f;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public IntIntMap(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD));
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    // Valor guardado, o 0 si la llave no está
+    public int get(int key) {
+        int[] k = keys;
+        int[] v = values;
+        int m = mask;
+        for (int i = mix(key) & m; ; i = (i + 1) & m) {
+            int value = v[i];
+            if (value == 0 || k[i] == key) {
+                return value;
+            }
+        }
+    }
+
+    // Agrega o reemplaza; value no puede ser 0
+    public void put(int key, int value) {
+        if (value == 0) {
+            throw new IllegalArgumentException("value no puede ser 0");
+        }
+        if (size + 1 > (int) (values.length * MAX_LOAD)) {
+            resize(values.length << 1);
+        }
+        int i = mix(key) & mask;
+        while (values[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != 0) {
+                int i = mix(oldKeys[j]) & mask;
+                while (values[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    // Los ids son secuenciales: se dispersan para que no formen bloques contiguos en la tabla
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, n) - 1) << 1;
+        return capacity < 0 ? 1 << 30 : capacity;
+    }
+}
@@ -0,0 +1,128 @@
+package cl.huertohogar.usuario_backend.util;
+
+// Mapa int -> String con direccionamiento abierto (sondeo lineal) sobre dos arreglos paralelos:
+// sin objetos Entry ni Integer, ~8 bytes por posición con compressed oops (más el String, que se comparte).
+// Una posición está vacía si su valor es null. No es seguro para varios hilos: quien lo use debe sincronizar.
+public final class IntStringMap {
+
+    private static final float MAX_LOAD = 0.7f;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private String[] values;
+    private int mask;
+    private int size;
+
+    public IntStringMap(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / MAX_LOAD));
+        this.keys = new int[capacity];
+        this.values = new String[capacity];
+        this.mask = capacity - 1;
+    }
+
+    public String get(int key) {
+        int[] k = keys;
+        String[] v = values;
+        int m = mask;
+        for (int i = mix(key) & m; ; i = (i + 1) & m) {
+            String value = v[i];
+            if (value == null) {
+                return null;
+            }
+            if (k[i] == key) {
+                return value;
+            }
+        }
+    }
+
+    // Agrega o reemplaza; value no puede ser null
+    public void put(int key, String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value no puede ser null");
+        }
+        if (size + 1 > (int) (values.length * MAX_LOAD)) {
+            resize(values.length << 1);
+        }
+        int i = mix(key) & mask;
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    // Borrado con desplazamiento hacia atrás: no deja marcas de borrado que alarguen las búsquedas
+    public boolean remove(int key) {
+        int i = mix(key) & mask;
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                shiftBack(i);
+                size--;
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return values.length;
+    }
+
+    private void shiftBack(int hole) {
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            String value = values[i];
+            if (value == null) {
+                break;
+            }
+            int home = mix(keys[i]) & mask;
+            // Se mueve al hueco si su posición ideal no está entre el hueco (excluido) e i (incluido)
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = value;
+                hole = i;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        String[] oldValues = values;
+        keys = new int[capacity];
+        values = new String[capacity];
+        mask = capacity - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = mix(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    // Los ids son secuenciales: se dispersan para que no formen bloques contiguos en la tabla
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, n) - 1) << 1;
+        return capacity < 0 ? 1 << 30 : capacity;
+    }
+}
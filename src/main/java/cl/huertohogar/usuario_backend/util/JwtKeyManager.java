@@ -0,0 +1,358 @@
+package cl.huertohogar.usuario_backend.util;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import cl.huertohogar.usuario_backend.config.JwtProperties;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.StringJoiner;
+import javax.crypto.SecretKey;
+
+// Anillo de llaves de firma y verificación de JWT.
+// - Una sola llave activa firma (la de activate-at más reciente ya cumplida) y pone su "kid" en el header.
+// - Todas las llaves del anillo verifican; la llave se obtiene con un lookup directo por "kid".
+// - Las llaves vienen de jwt.keys[n].* y/o de jwt.key-file, que se recarga cada jwt.key-ring-refresh ms.
+//   Para rotar: agregar la nueva llave con activate-at futuro, y retirar la anterior (quitarla o con retire-at)
+//   cuando expiren sus tokens.
+// - Sin jwt.keys se usa la configuración simple (jwt.algorithm / jwt.secret / jwt.private-key).
+// Los tokens sin "kid" se validan con la llave sin kid del anillo: la de la configuración simple HS256 o, tras
+// migrar, jwt.secret con retire-at = jwt.legacy-hs256-accept-until. Sin ella se rechazan.
+@Component
+public class JwtKeyManager {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyManager.class);
+
+    // retireAt null = sin fecha de retiro
+    private record LoadedKey(String kid, Key signingKey, Key verificationKey, PublicJwk<?> jwk,
+                             Instant activateAt, Instant retireAt) {
+
+        boolean retired(Instant now) {
+            return retireAt != null && !now.isBefore(retireAt);
+        }
+    }
+
+    // Snapshot inmutable del anillo; se reemplaza completo en cada recarga. kidless = llave de los tokens sin kid
+    private record KeyRing(LoadedKey active, Map<String, LoadedKey> verificationKeys, LoadedKey kidless,
+                           String jwksJson) {
+    }
+
+    @Autowired
+    private JwtProperties jwtProperties;
+
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    private List<LoadedKey> keys = List.of();
+    private long keyFileLastModified = -1;
+    private volatile KeyRing ring;
+
+    @PostConstruct
+    void init() {
+        this.keys = loadKeys();
+        this.ring = buildRing(keys, Instant.now());
+        log.info("Anillo JWT cargado: {} llave(s), firmando con kid={}", keys.size(), ring.active().kid());
+    }
+
+    // Recarga el archivo de llaves si cambió y re-evalúa cuál llave firma (rotación programada)
+    @Scheduled(fixedDelayString = "${jwt.key-ring-refresh:60000}", initialDelayString = "${jwt.key-ring-refresh:60000}")
+    public synchronized void refresh() {
+        try {
+            if (keyFileChanged()) {
+                this.keys = loadKeys();
+            }
+            KeyRing previous = this.ring;
+            KeyRing next = buildRing(keys, Instant.now());
+            this.ring = next;
+
+            if (!Objects.equals(previous.active().kid(), next.active().kid())) {
+                log.info("Rotación JWT: ahora se firma con kid={}", next.active().kid());
+            }
+            // Si se retiró alguna llave (también la de tokens sin kid), los tokens cacheados con ella ya no
+            // deben aceptarse. locate() ya las rechaza desde su retire-at; el cache se limpia en esta pasada
+            if (!next.verificationKeys().keySet().containsAll(previous.verificationKeys().keySet())
+                    || (previous.kidless() != null && next.kidless() == null)) {
+                tokenCache.clear();
+            }
+        } catch (RuntimeException e) {
+            log.error("No se pudo recargar el anillo de llaves JWT, se mantiene el anterior", e);
+        }
+    }
+
+    public Key getSigningKey() {
+        return ring.active().signingKey();
+    }
+
+    // null cuando se firma con la configuración HS256 simple (sin kid)
+    public String getSigningKeyId() {
+        return ring.active().kid();
+    }
+
+    // JWKS (RFC 7517) con las llaves públicas del anillo, ya serializado
+    public String getJwksJson() {
+        return ring.jwksJson();
+    }
+
+    // Resuelve la llave de verificación según el header del token (lookup directo por "kid")
+    public Locator<Key> keyLocator() {
+        return new LocatorAdapter<>() {
+            @Override
+            protected Key locate(JwsHeader header) {
+                String kid = header.getKeyId();
+                KeyRing current = ring;
+                LoadedKey key = kid == null ? current.kidless() : current.verificationKeys().get(kid);
+                // null = el token se rechaza
+                if (key == null || key.retired(Instant.now())) {
+                    return null;
+                }
+                return key.verificationKey();
+            }
+        };
+    }
+
+    private static SecretKey hmacKey(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("jwt.secret es obligatorio con HS256");
+        }
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static KeyRing buildRing(List<LoadedKey> keys, Instant now) {
+        LoadedKey active = null;
+        LoadedKey kidless = null;
+        Map<String, LoadedKey> verificationKeys = new HashMap<>();
+        StringJoiner jwks = new StringJoiner(",", "{\"keys\":[", "]}");
+
+        for (LoadedKey key : keys) {
+            if (key.retired(now)) {
+                continue;
+            }
+            if (key.kid() != null) {
+                verificationKeys.put(key.kid(), key);
+            } else {
+                kidless = key;
+            }
+            if (key.jwk() != null) {
+                jwks.add(Jwks.json(key.jwk()));
+            }
+            if (key.signingKey() != null && !key.activateAt().isAfter(now)
+                    && (active == null || !key.activateAt().isBefore(active.activateAt()))) {
+                active = key;
+            }
+        }
+        if (active == null) {
+            throw new IllegalStateException("No hay ninguna llave JWT activa para firmar");
+        }
+        return new KeyRing(active, Map.copyOf(verificationKeys), kidless, jwks.toString());
+    }
+
+    private List<LoadedKey> loadKeys() {
+        List<JwtProperties.RingKey> configured = new ArrayList<>(jwtProperties.getKeys());
+        configured.addAll(readKeyFile());
+
+        List<LoadedKey> loaded = new ArrayList<>();
+        if (configured.isEmpty()) {
+            loaded.add(loadSingleKey());
+        }
+        Map<String, Boolean> seen = new HashMap<>();
+        for (JwtProperties.RingKey config : configured) {
+            LoadedKey key = loadRingKey(config);
+            if (seen.put(key.kid(), Boolean.TRUE) != null) {
+                throw new IllegalStateException("kid JWT duplicado: " + key.kid());
+            }
+            loaded.add(key);
+        }
+        if (loaded.stream().allMatch(key -> key.kid() != null)) {
+            LoadedKey legacy = loadLegacyKey();
+            if (legacy != null) {
+                loaded.add(legacy);
+            }
+        }
+        return List.copyOf(loaded);
+    }
+
+    // Tras migrar desde HS256 simple: jwt.secret sólo verifica tokens sin kid y se retira en
+    // jwt.legacy-hs256-accept-until. Sin ese límite no se carga: jwt.secret está en el repositorio y
+    // aceptarlo sin kid para siempre permitiría fabricar tokens con cualquier sub/rol
+    private LoadedKey loadLegacyKey() {
+        String acceptUntil = jwtProperties.getLegacyHs256AcceptUntil();
+        if (acceptUntil == null || acceptUntil.isBlank()) {
+            return null;
+        }
+        Instant retireAt;
+        try {
+            retireAt = Instant.parse(acceptUntil);
+        } catch (DateTimeParseException e) {
+            throw new IllegalStateException("jwt.legacy-hs256-accept-until inválido: " + acceptUntil, e);
+        }
+        return new LoadedKey(null, null, hmacKey(jwtProperties.getSecret()), null, Instant.EPOCH, retireAt);
+    }
+
+    // Configuración simple de una sola llave (jwt.algorithm)
+    private LoadedKey loadSingleKey() {
+        String algorithm = jwtProperties.getAlgorithm();
+        if (algorithm == null || "HS256".equalsIgnoreCase(algorithm)) {
+            SecretKey secretKey = hmacKey(jwtProperties.getSecret());
+            return new LoadedKey(null, secretKey, secretKey, null, Instant.EPOCH, null);
+        }
+
+        KeyPair keyPair = loadOrGenerateKeyPair(algorithm);
+        PublicJwk<?> jwk = toJwk(keyPair.getPublic(), jwtProperties.getKeyId());
+        return new LoadedKey(jwk.getId(), keyPair.getPrivate(), keyPair.getPublic(), jwk, Instant.EPOCH, null);
+    }
+
+    private static LoadedKey loadRingKey(JwtProperties.RingKey config) {
+        Instant activateAt = parseInstant(config.getActivateAt(), Instant.EPOCH, "activate-at", config);
+        Instant retireAt = parseInstant(config.getRetireAt(), null, "retire-at", config);
+        String algorithm = config.getAlgorithm() == null ? "HS256" : config.getAlgorithm().toUpperCase();
+
+        if (algorithm.startsWith("HS")) {
+            if (config.getKid() == null || config.getKid().isBlank()) {
+                throw new IllegalStateException("Las llaves HMAC del anillo requieren kid");
+            }
+            if (config.getSecret() == null || config.getSecret().isBlank()) {
+                throw new IllegalStateException("La llave JWT " + config.getKid() + " no tiene secret");
+            }
+            SecretKey secretKey = Keys.hmacShaKeyFor(config.getSecret().getBytes(StandardCharsets.UTF_8));
+            return new LoadedKey(config.getKid(), secretKey, secretKey, null, activateAt, retireAt);
+        }
+
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyFactoryAlgorithm(algorithm));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decodePem(config.getPublicKey())));
+            PrivateKey privateKey = null;
+            if (config.getPrivateKey() != null && !config.getPrivateKey().isBlank()) {
+                privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decodePem(config.getPrivateKey())));
+            }
+            PublicJwk<?> jwk = toJwk(publicKey, config.getKid());
+            return new LoadedKey(jwk.getId(), privateKey, publicKey, jwk, activateAt, retireAt);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("No se pudo cargar la llave JWT " + config.getKid(), e);
+        }
+    }
+
+    private List<JwtProperties.RingKey> readKeyFile() {
+        String keyFile = jwtProperties.getKeyFile();
+        if (keyFile == null || keyFile.isBlank()) {
+            return List.of();
+        }
+        Path path = Path.of(keyFile);
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            keyFileLastModified = Files.getLastModifiedTime(path).toMillis();
+            Properties properties = new Properties();
+            properties.load(reader);
+            return new Binder(new MapConfigurationPropertySource(properties))
+                .bind("jwt.keys", Bindable.listOf(JwtProperties.RingKey.class))
+                .orElse(List.of());
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer jwt.key-file: " + keyFile, e);
+        }
+    }
+
+    private boolean keyFileChanged() {
+        String keyFile = jwtProperties.getKeyFile();
+        if (keyFile == null || keyFile.isBlank()) {
+            return false;
+        }
+        try {
+            return Files.getLastModifiedTime(Path.of(keyFile)).toMillis() != keyFileLastModified;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer jwt.key-file: " + keyFile, e);
+        }
+    }
+
+    private KeyPair loadOrGenerateKeyPair(String algorithm) {
+        String keyFactoryAlgorithm = keyFactoryAlgorithm(algorithm);
+        try {
+            if (jwtProperties.getPrivateKey() != null && !jwtProperties.getPrivateKey().isBlank()) {
+                KeyFactory keyFactory = KeyFactory.getInstance(keyFactoryAlgorithm);
+                PrivateKey privateKey = keyFactory.generatePrivate(
+                    new PKCS8EncodedKeySpec(decodePem(jwtProperties.getPrivateKey())));
+                PublicKey publicKey = keyFactory.generatePublic(
+                    new X509EncodedKeySpec(decodePem(jwtProperties.getPublicKey())));
+                return new KeyPair(publicKey, privateKey);
+            }
+
+            log.warn("jwt.private-key no configurada: se genera un par de llaves {} temporal. "
+                + "Los tokens no sobrevivirán un reinicio ni serán válidos en otros nodos.", algorithm);
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(keyFactoryAlgorithm);
+            if ("EC".equals(keyFactoryAlgorithm)) {
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            }
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("No se pudieron cargar las llaves JWT " + algorithm, e);
+        }
+    }
+
+    private static String keyFactoryAlgorithm(String algorithm) {
+        return switch (algorithm.toUpperCase()) {
+            case "ES256" -> "EC";
+            case "EDDSA" -> "Ed25519";
+            default -> throw new IllegalStateException("Algoritmo JWT no soportado: " + algorithm);
+        };
+    }
+
+    private static Instant parseInstant(String value, Instant defaultValue, String property,
+                                        JwtProperties.RingKey config) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalStateException(property + " inválido en la llave JWT " + config.getKid(), e);
+        }
+    }
+
+    private static PublicJwk<?> toJwk(PublicKey publicKey, String keyId) {
+        if (keyId != null && !keyId.isBlank()) {
+            return Jwks.builder().key(publicKey).publicKeyUse("sig").id(keyId).build();
+        }
+        return Jwks.builder().key(publicKey).publicKeyUse("sig").idFromThumbprint().build();
+    }
+
+    // Acepta PEM (con o sin encabezados BEGIN/END) o base64 DER directo
+    private static byte[] decodePem(String pem) {
+        if (pem == null || pem.isBlank()) {
+            throw new IllegalArgumentException("Llave PEM vacía");
+        }
+        String base64 = pem.replaceAll("-----(BEGIN|END)[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
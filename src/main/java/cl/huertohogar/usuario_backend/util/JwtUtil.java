@@ -1,13 +1,15 @@
 package cl.huertohogar.usuario_backend.util;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import cl.huertohogar.usuario_backend.config.JwtProperties;
 
 import java.util.Date;
-import javax.crypto.SecretKey;
 
 @Component
 public class JwtUtil {
@@ -15,68 +17,85 @@ public class JwtUtil {
     @Autowired
     private JwtProperties jwtProperties;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private JwtKeyManager keyManager;
+
+    // El parser se construye una sola vez (es inmutable y thread-safe)
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        this.parser = Jwts.parser()
+                .keyLocator(keyManager.keyLocator())
+                .build();
     }
 
-    public String generateToken(Integer usuarioId, String email, String rol) {
+    // epoch = token_version del usuario; permite revocar tokens al cambiar rol o contraseña
+    public String generateToken(Integer usuarioId, String email, String rol, Integer epoch) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtProperties.getExpiration());
 
         return Jwts.builder()
+                .header().keyId(keyManager.getSigningKeyId()).and()
                 .subject(usuarioId.toString())
                 .claim("email", email)
                 .claim("rol", rol)
+                .claim("ver", epoch == null ? 0 : epoch)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(keyManager.getSigningKey())
                 .compact();
     }
 
-    public Integer extractUsuarioId(String token) {
-        return Integer.parseInt(
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject()
+    // Verifica firma y expiración una sola vez y retorna los datos del token.
+    // Si el cache está activo, un token ya verificado se resuelve sin recalcular la firma.
+    // Lanza JwtException (o IllegalArgumentException) si el token no es válido.
+    public TokenPrincipal verify(String token) {
+        if (!tokenCache.isEnabled()) {
+            return parse(token);
+        }
+        TokenPrincipal cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        TokenPrincipal principal = parse(token);
+        tokenCache.put(token, principal);
+        return principal;
+    }
+
+    private TokenPrincipal parse(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Integer epoch = claims.get("ver", Integer.class);
+        return new TokenPrincipal(
+            Integer.parseInt(claims.getSubject()),
+            claims.get("email", String.class),
+            claims.get("rol", String.class),
+            epoch == null ? 0 : epoch,
+            claims.getExpiration().toInstant()
         );
     }
 
+    public Integer extractUsuarioId(String token) {
+        return verify(token).usuarioId();
+    }
+
     public String extractEmail(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("email", String.class);
+        return verify(token).email();
     }
 
     public String extractRol(String token) {
-        String rol = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("rol", String.class);
-        
-        // DEBUG: Imprimir el rol extraído
-        System.out.println("✅ ROL EXTRAÍDO DEL TOKEN: " + rol);
-        
-        return rol;
+        return verify(token).rol();
     }
 
     public boolean isTokenValid(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
+            verify(token);
             return true;
-        } catch (Exception e) {
-            System.out.println("❌ TOKEN INVÁLIDO: " + e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,138 @@
+package cl.huertohogar.usuario_backend.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+// Respuesta JSON ya serializada y comprimida con gzip, con ETag fuerte derivado del contenido.
+// Se arma una vez por versión de los datos; cada request sólo elige la variante o responde 304.
+public final class PrecompressedJson {
+
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    private PrecompressedJson(byte[] identity, byte[] gzip, String etag, String gzipEtag) {
+        this.identity = identity;
+        this.gzip = gzip;
+        this.etag = etag;
+        this.gzipEtag = gzipEtag;
+    }
+
+    public static PrecompressedJson of(byte[] json) {
+        String hash = sha256(json);
+        byte[] compressed = gzip(json);
+        // Cada codificación es otra representación, así que lleva su propio ETag fuerte
+        return new PrecompressedJson(json, compressed.length < json.length ? compressed : null,
+            "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+    }
+
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding, CacheControl cacheControl) {
+        boolean useGzip = gzip != null && acceptsGzip(acceptEncoding);
+        String currentEtag = useGzip ? gzipEtag : etag;
+
+        if (matches(ifNoneMatch, currentEtag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(currentEtag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(currentEtag)
+            .cacheControl(cacheControl)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (useGzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(useGzip ? gzip : identity);
+    }
+
+    // If-None-Match puede traer varios ETags, débiles (W/) o "*". Sólo vale el ETag de la representación que se
+    // respondería: el de la otra codificación no es un 304 para esta (el 304 lleva el ETag seleccionado)
+    private static boolean matches(String ifNoneMatch, String currentEtag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.startsWith("W/")) {
+                t = t.substring(2);
+            }
+            if (t.equals("*") || t.equals(currentEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Se leen todas las codificaciones antes de decidir: el q de gzip (o x-gzip) manda sobre el de "*",
+    // sin importar el orden ("*;q=0, gzip" acepta gzip; "gzip;q=0, *" no)
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzipQ = -1;
+        double anyQ = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            String coding = tokens[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equalsIgnoreCase("x-gzip")) {
+                gzipQ = Math.max(gzipQ, quality(tokens));
+            } else if (coding.equals("*")) {
+                anyQ = Math.max(anyQ, quality(tokens));
+            }
+        }
+        return (gzipQ >= 0 ? gzipQ : anyQ) > 0;
+    }
+
+    // q por defecto 1; un q mal formado cuenta como 0 (no aceptado)
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 27);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
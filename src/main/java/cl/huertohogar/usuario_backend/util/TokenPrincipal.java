@@ -0,0 +1,20 @@
+package cl.huertohogar.usuario_backend.util;
+
+import java.time.Instant;
+
+// Datos ya verificados de un token JWT (se construye una sola vez por request)
+public record TokenPrincipal(Integer usuarioId, String email, String rol, int epoch, Instant expiration) {
+
+    public boolean hasRol(String... roles) {
+        for (String r : roles) {
+            if (r.equals(rol)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(rol);
+    }
+}
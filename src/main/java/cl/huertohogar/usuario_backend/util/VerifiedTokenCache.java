@@ -0,0 +1,123 @@
+package cl.huertohogar.usuario_backend.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import cl.huertohogar.usuario_backend.config.JwtProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cache acotado de tokens ya verificados, indexado por el SHA-256 del token (nunca guarda el token en claro).
+// Cada entrada expira a más tardar en el exp del propio token.
+@Component
+public class VerifiedTokenCache {
+
+    private record Entry(TokenPrincipal principal, long expiresAtMillis) {
+    }
+
+    private final JwtProperties.Cache config;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public VerifiedTokenCache(JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        this.config = jwtProperties.getCache();
+
+        FunctionCounter.builder("jwt.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("jwt.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    // Retorna el principal cacheado o null si no está (o ya expiró)
+    public TokenPrincipal get(String token) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            if (entries.remove(key, entry)) {
+                evictions.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.principal();
+    }
+
+    public void put(String token, TokenPrincipal principal) {
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(principal.expiration().toEpochMilli(), now + config.getTtl());
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= config.getMaxSize()) {
+            evict(now);
+        }
+        entries.put(digest(token), new Entry(principal, expiresAt));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Primero elimina las entradas expiradas; si sigue lleno, libera espacio descartando entradas arbitrarias
+    private void evict(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expiresAtMillis() <= now) {
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        int target = config.getMaxSize() - Math.max(1, config.getMaxSize() / 10);
+        it = entries.values().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+-- Se ejecuta después de que Hibernate crea/actualiza las tablas (spring.jpa.defer-datasource-initialization=true).
+-- Objetos que no se pueden declarar con anotaciones JPA.
+
+-- Login sin distinguir mayúsculas (WHERE lower(email) = lower(?)) y un solo usuario por email con cualquier
+-- combinación de mayúsculas: "Foo@x.cl" y "foo@x.cl" son la misma cuenta.
+-- Migración (una vez): reemplaza al índice no único anterior. Si ya existen emails que sólo difieren en
+-- mayúsculas, el CREATE falla y la aplicación no arranca; hay que unificar esas cuentas antes (ver README).
+DROP INDEX IF EXISTS idx_usuario_email_lower;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_usuario_email_lower ON usuario (lower(email));
+
+-- Migraciones de datos que deben correr una sola vez aunque este script se ejecute en cada arranque.
+-- Registrar el nombre es lo que "reclama" la migración: si dos nodos arrancan a la vez, el segundo queda
+-- esperando el INSERT del primero, recibe el conflicto y no hace nada.
+CREATE TABLE IF NOT EXISTS migracion_aplicada (
+    nombre      VARCHAR(100) PRIMARY KEY,
+    aplicada_en TIMESTAMP    NOT NULL DEFAULT now()
+);
+
+-- Resumen de órdenes por usuario: se llena una vez desde orden y OrdenResumenService lo mantiene desde
+-- entonces. ON CONFLICT DO NOTHING no pisa filas que OrdenResumenService ya haya escrito (p. ej. una
+-- orden creada mientras corría la migración), y una tabla vaciada a mano no se vuelve a llenar sola.
+WITH migracion AS (
+    INSERT INTO migracion_aplicada (nombre) VALUES ('orden_resumen_usuario_inicial')
+    ON CONFLICT (nombre) DO NOTHING
+    RETURNING nombre
+)
+INSERT INTO orden_resumen_usuario (id_usuario, cantidad_ordenes, total_gastado, ultima_orden)
+SELECT o.id_usuario, COUNT(*), SUM(o.total_orden), MAX(o.fecha_orden)
+FROM orden o
+WHERE EXISTS (SELECT 1 FROM migracion)
+GROUP BY o.id_usuario
+ON CONFLICT (id_usuario) DO NOTHING;
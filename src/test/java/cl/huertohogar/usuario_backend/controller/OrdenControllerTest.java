@@ -0,0 +1,108 @@
+package cl.huertohogar.usuario_backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import cl.huertohogar.usuario_backend.dto.OrdenRequest;
+import cl.huertohogar.usuario_backend.dto.OrdenResponse;
+import cl.huertohogar.usuario_backend.model.Orden;
+import cl.huertohogar.usuario_backend.model.OrdenResumenUsuario;
+import cl.huertohogar.usuario_backend.model.Usuario;
+import cl.huertohogar.usuario_backend.service.OrdenService;
+import cl.huertohogar.usuario_backend.util.TokenPrincipal;
+
+// Un USER sólo crea y ve órdenes propias; ADMIN todas. El rol mínimo lo valida RoleCheckInterceptor
+class OrdenControllerTest {
+
+    private static final TokenPrincipal DUENO = principal(1, "USER");
+    private static final TokenPrincipal OTRO = principal(2, "USER");
+    private static final TokenPrincipal ADMIN = principal(99, "ADMIN");
+
+    private OrdenService ordenService;
+    private OrdenController controller;
+
+    @BeforeEach
+    void setUp() {
+        ordenService = mock(OrdenService.class);
+        controller = new OrdenController();
+        ReflectionTestUtils.setField(controller, "ordenService", ordenService);
+
+        when(ordenService.save(any(Orden.class))).thenAnswer(invocation -> {
+            Orden orden = invocation.getArgument(0);
+            orden.setIdOrden(10);
+            return orden;
+        });
+        when(ordenService.findById(10)).thenReturn(ordenDe(1));
+        when(ordenService.findByUsuario(1)).thenReturn(List.of(new OrdenResponse(10, 1, LocalDate.now(), "PENDIENTE", 1.0, "Calle")));
+        when(ordenService.findResumenByUsuario(1)).thenReturn(new OrdenResumenUsuario(1, 1L, 1.0, LocalDate.now()));
+    }
+
+    @Test
+    void crearOrdenSoloParaSiMismoSalvoAdmin() {
+        assertEquals(HttpStatus.CREATED, controller.createOrden(request(1), DUENO).getStatusCode());
+        assertEquals(HttpStatus.CREATED, controller.createOrden(request(1), ADMIN).getStatusCode());
+
+        assertEquals(HttpStatus.FORBIDDEN, controller.createOrden(request(1), OTRO).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, controller.createOrden(request(null), OTRO).getStatusCode());
+    }
+
+    @Test
+    void crearOrdenAjenaNoLlegaAlServicio() {
+        controller.createOrden(request(1), OTRO);
+        verify(ordenService, never()).save(any(Orden.class));
+    }
+
+    @Test
+    void verOrdenPorIdSoloElDuenoOAdmin() {
+        ResponseEntity<OrdenResponse> propia = controller.getOrdenById(10, DUENO);
+        assertEquals(HttpStatus.OK, propia.getStatusCode());
+        assertEquals(1, propia.getBody().getIdUsuario());
+        assertEquals(HttpStatus.OK, controller.getOrdenById(10, ADMIN).getStatusCode());
+
+        ResponseEntity<OrdenResponse> ajena = controller.getOrdenById(10, OTRO);
+        assertEquals(HttpStatus.FORBIDDEN, ajena.getStatusCode());
+        assertNull(ajena.getBody());
+    }
+
+    @Test
+    void ordenesYResumenDeUnUsuarioSoloElMismoOAdmin() {
+        assertEquals(HttpStatus.OK, controller.getOrdenesByUsuario(1, DUENO).getStatusCode());
+        assertEquals(HttpStatus.OK, controller.getOrdenesByUsuario(1, ADMIN).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, controller.getOrdenesByUsuario(1, OTRO).getStatusCode());
+
+        assertEquals(HttpStatus.OK, controller.getResumenByUsuario(1, DUENO).getStatusCode());
+        assertEquals(HttpStatus.OK, controller.getResumenByUsuario(1, ADMIN).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, controller.getResumenByUsuario(1, OTRO).getStatusCode());
+        verify(ordenService, never()).findByUsuario(2);
+        verify(ordenService, never()).findResumenByUsuario(2);
+    }
+
+    private static OrdenRequest request(Integer idUsuario) {
+        return new OrdenRequest(idUsuario, LocalDate.of(2025, 11, 10), "PENDIENTE", 45990.5, "Av. Providencia 456");
+    }
+
+    private static Orden ordenDe(int idUsuario) {
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(idUsuario);
+        return new Orden(10, usuario, LocalDate.of(2025, 11, 10), "PENDIENTE", 45990.5, "Av. Providencia 456");
+    }
+
+    private static TokenPrincipal principal(int usuarioId, String rol) {
+        return new TokenPrincipal(usuarioId, "u" + usuarioId + "@x.cl", rol, 0, Instant.now().plusSeconds(900));
+    }
+}
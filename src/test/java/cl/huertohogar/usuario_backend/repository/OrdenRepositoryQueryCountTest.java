@@ -0,0 +1,121 @@
+package cl.huertohogar.usuario_backend.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import cl.huertohogar.usuario_backend.dto.OrdenResponse;
+import cl.huertohogar.usuario_backend.dto.TotalOrdenes;
+import cl.huertohogar.usuario_backend.model.Orden;
+import cl.huertohogar.usuario_backend.model.Usuario;
+
+// Cantidad de sentencias SQL de los listados de órdenes: debe ser constante, no una por usuario (N+1).
+// Corre sobre H2 en memoria, sin cache de segundo nivel (así cada acceso a usuario se vería como SELECT).
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never"
+})
+class OrdenRepositoryQueryCountTest {
+
+    private static final int USUARIOS = 20;
+    private static final int ORDENES_POR_USUARIO = 5;
+
+    @Autowired
+    private OrdenRepository ordenRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Statistics statistics;
+    private Integer idOrdenCualquiera;
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < USUARIOS; u++) {
+            Usuario usuario = testEntityManager.persist(usuario(u));
+            for (int o = 0; o < ORDENES_POR_USUARIO; o++) {
+                Orden orden = testEntityManager.persist(new Orden(null, usuario, LocalDate.of(2025, 1, 1 + o),
+                    o % 2 == 0 ? "PENDIENTE" : "ENVIADA", 1000.0 + o, "Calle " + o));
+                idOrdenCualquiera = orden.getIdOrden();
+            }
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listadoCompletoEsUnaSolaConsulta() {
+        List<OrdenResponse> ordenes = ordenRepository.findAllResumen();
+
+        assertEquals(USUARIOS * ORDENES_POR_USUARIO, ordenes.size());
+        assertTrue(ordenes.stream().allMatch(o -> o.getIdUsuario() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount(), "la proyección no debe cargar entidades");
+    }
+
+    @Test
+    void listadosFiltradosSonUnaSolaConsulta() {
+        ordenRepository.findResumenByEstado("PENDIENTE");
+        ordenRepository.findResumenByFechaOrdenBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3));
+        ordenRepository.findResumenByUsuario(1);
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void usuarioEsLazy() {
+        List<Orden> ordenes = ordenRepository.findAll();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(USUARIOS * ORDENES_POR_USUARIO, statistics.getEntityLoadCount(), "sólo las órdenes, sin sus usuarios");
+        assertEquals(USUARIOS * ORDENES_POR_USUARIO, ordenes.size());
+    }
+
+    @Test
+    void totalPorUsuarioSeCalculaEnLaBase() {
+        Integer idUsuario = ordenRepository.findById(idOrdenCualquiera).orElseThrow().getUsuario().getIdUsuario();
+        statistics.clear();
+
+        TotalOrdenes total = ordenRepository.totalByUsuario(idUsuario);
+
+        assertEquals(ORDENES_POR_USUARIO, total.cantidad());
+        assertEquals(5010.0, total.total(), 0.001);  // 1000 + 1001 + ... + 1004
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, ordenRepository.totalByUsuario(-1).cantidad());
+    }
+
+    private static Usuario usuario(int i) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Nombre" + i);
+        usuario.setAPaterno("Paterno");
+        usuario.setAMaterno("Materno");
+        usuario.setRut(String.valueOf(10000000 + i));
+        usuario.setDv("9");
+        usuario.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        usuario.setIdRegion(13);
+        usuario.setDireccion("Dirección " + i);
+        usuario.setEmail("usuario" + i + "@test.cl");
+        usuario.setPasswordHashed("{bcrypt}hash");
+        return usuario;
+    }
+}
@@ -0,0 +1,215 @@
+package cl.huertohogar.usuario_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import cl.huertohogar.usuario_backend.config.LoginThrottleProperties;
+import cl.huertohogar.usuario_backend.exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Token bucket, bloqueo exponencial y descarte de llaves con un reloj manual (sin esperas reales)
+class LoginThrottleServiceTest {
+
+    private static final String EMAIL = "foo@x.cl";
+    private static final String IP = "10.0.0.1";
+
+    private LoginThrottleProperties properties;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoginThrottleProperties();
+        properties.setEmailCapacity(5);
+        properties.setEmailRefillPerMinute(5);  // un intento cada 12 s
+        properties.setEmailBackoffAfter(3);
+        properties.setIpCapacity(1000);
+        properties.setIpRefillPerMinute(1000);
+        properties.setIpBackoffAfter(1000);
+        properties.setBaseBackoff(1000);
+        properties.setMaxBackoff(8000);
+        now = 1_000_000_000L;
+    }
+
+    @Test
+    void bucketSeAgotaYSeRecargaConElTiempo() {
+        LoginThrottleService service = service();
+        for (int i = 0; i < 5; i++) {
+            service.acquire(EMAIL, IP);
+        }
+        TooManyLoginAttemptsException e = assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire(EMAIL, IP));
+        assertEquals(12, e.getRetryAfterSeconds());
+
+        avanzar(11_000);
+        assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire(EMAIL, IP));
+        avanzar(1_000);
+        assertDoesNotThrow(() -> service.acquire(EMAIL, IP));
+        assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire(EMAIL, IP));
+
+        // La recarga no supera la capacidad
+        avanzar(TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 5; i++) {
+            service.acquire(EMAIL, IP);
+        }
+        assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire(EMAIL, IP));
+    }
+
+    @Test
+    void mayusculasYEspaciosSonElMismoEmail() {
+        LoginThrottleService service = service();
+        for (int i = 0; i < 5; i++) {
+            service.acquire(i % 2 == 0 ? "Foo@X.cl " : EMAIL, IP);
+        }
+        assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire(EMAIL, IP));
+    }
+
+    @Test
+    void bloqueoCreceExponencialmenteHastaElMaximo() {
+        properties.setEmailCapacity(1000);
+        properties.setEmailRefillPerMinute(1000);
+        LoginThrottleService service = service();
+
+        // Los primeros backoffAfter fallos no bloquean
+        for (int i = 0; i < 3; i++) {
+            service.acquire(EMAIL, IP);
+            service.onFailure(EMAIL, IP);
+        }
+        service.acquire(EMAIL, IP);
+        service.onFailure(EMAIL, IP);  // 4º fallo: 1 s
+
+        long[] esperados = { 1000, 2000, 4000, 8000, 8000 };
+        for (long bloqueo : esperados) {
+            TooManyLoginAttemptsException e = assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire(EMAIL, IP));
+            assertEquals(bloqueo / 1000, e.getRetryAfterSeconds());
+            avanzar(bloqueo - 1);
+            assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire(EMAIL, IP));
+            avanzar(1);
+            service.acquire(EMAIL, IP);
+            service.onFailure(EMAIL, IP);
+        }
+    }
+
+    @Test
+    void loginCorrectoLimpiaFallosDelEmailPeroNoDeLaIp() {
+        properties.setEmailCapacity(1000);
+        properties.setEmailRefillPerMinute(1000);
+        properties.setIpBackoffAfter(4);
+        LoginThrottleService service = service();
+
+        for (int i = 0; i < 4; i++) {
+            service.acquire(EMAIL, IP);
+            service.onFailure(EMAIL, IP);
+        }
+        assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire(EMAIL, null));
+        service.acquire(null, IP);
+        service.onFailure(null, IP);
+
+        service.onSuccess(EMAIL);
+        assertDoesNotThrow(() -> service.acquire(EMAIL, null));
+        // El contador volvió a cero: un fallo más no bloquea
+        service.onFailure(EMAIL, null);
+        assertDoesNotThrow(() -> service.acquire(EMAIL, null));
+
+        // La IP sigue bloqueada (5 fallos > ipBackoffAfter)
+        assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire(null, IP));
+    }
+
+    @Test
+    void evictIdleDescartaInactivasPeroNoBloqueadas() {
+        properties.setIdleTimeout(60_000);
+        properties.setEmailBackoffAfter(0);
+        properties.setMaxBackoff(TimeUnit.HOURS.toMillis(1));
+        properties.setBaseBackoff(TimeUnit.HOURS.toMillis(1));
+        LoginThrottleService service = service();
+
+        service.acquire("inactivo@x.cl", null);
+        service.acquire("bloqueado@x.cl", null);
+        service.onFailure("bloqueado@x.cl", null);
+        assertEquals(2, service.size());
+
+        avanzar(60_001);
+        service.evictIdle();
+        assertEquals(1, service.size(), "el bloqueo vigente se conserva");
+        assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire("bloqueado@x.cl", null));
+
+        avanzar(TimeUnit.HOURS.toMillis(2));
+        service.evictIdle();
+        assertEquals(0, service.size());
+    }
+
+    @Test
+    void makeRoomAcotaLaCantidadDeLlaves() {
+        properties.setMaxEntries(64);  // una llave por segmento
+        properties.setEmailCapacity(1);
+        LoginThrottleService service = service();
+
+        service.acquire(EMAIL, null);
+        assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire(EMAIL, null));
+
+        for (int i = 0; i < 1000; i++) {
+            avanzar(1);
+            service.acquire("usuario" + i + "@x.cl", null);
+            assertTrue(service.size() <= 64, "size " + service.size());
+        }
+        // Su segmento se reutilizó para otra llave: el email vuelve con el bucket lleno
+        assertDoesNotThrow(() -> service.acquire(EMAIL, null));
+    }
+
+    @Test
+    void makeRoomNoDescartaLlavesBloqueadas() {
+        properties.setMaxEntries(64);  // una llave por segmento
+        properties.setEmailBackoffAfter(0);
+        properties.setBaseBackoff(TimeUnit.HOURS.toMillis(1));
+        properties.setMaxBackoff(TimeUnit.HOURS.toMillis(1));
+        LoginThrottleService service = service();
+
+        service.acquire(EMAIL, null);
+        service.onFailure(EMAIL, null);
+
+        // Llaves nuevas en el segmento del email bloqueado se rechazan en vez de borrar su bloqueo
+        int rechazadas = 0;
+        for (int i = 0; i < 1000; i++) {
+            avanzar(1);
+            try {
+                service.acquire("usuario" + i + "@x.cl", null);
+            } catch (TooManyLoginAttemptsException e) {
+                rechazadas++;
+            }
+            assertTrue(service.size() <= 64, "size " + service.size());
+        }
+        assertTrue(rechazadas > 0);
+        TooManyLoginAttemptsException e = assertThrows(TooManyLoginAttemptsException.class, () -> service.acquire(EMAIL, null));
+        assertTrue(e.getRetryAfterSeconds() > 3000, "el bloqueo de 1 h sigue vigente");
+
+        // Terminado el bloqueo, el segmento vuelve a aceptar llaves nuevas
+        avanzar(TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < 1000; i++) {
+            service.acquire("otro" + i + "@x.cl", null);
+        }
+    }
+
+    @Test
+    void deshabilitadoNoLimita() {
+        properties.setEnabled(false);
+        LoginThrottleService service = service();
+        for (int i = 0; i < 100; i++) {
+            service.acquire(EMAIL, IP);
+            service.onFailure(EMAIL, IP);
+        }
+        assertEquals(0, service.size());
+    }
+
+    private LoginThrottleService service() {
+        return new LoginThrottleService(properties, new SimpleMeterRegistry(), () -> now);
+    }
+
+    private void avanzar(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,169 @@
+package cl.huertohogar.usuario_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import cl.huertohogar.usuario_backend.dto.OrdenRequest;
+import cl.huertohogar.usuario_backend.dto.OrdenResponse;
+import cl.huertohogar.usuario_backend.exception.UsuarioNotFoundException;
+import cl.huertohogar.usuario_backend.model.Orden;
+import cl.huertohogar.usuario_backend.model.Usuario;
+
+// Lote de órdenes contra PostgreSQL: reserva de IDs con nextval/generate_series, INSERT en batch
+// (reWriteBatchedInserts, en trozos de jdbc-batch-size) y upsert ON CONFLICT del resumen por usuario.
+// Necesita Docker; sin Docker la clase se omite.
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "orden.lote.max-size=10",
+    "orden.lote.jdbc-batch-size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ OrdenService.class, OrdenResumenService.class })
+class OrdenLotePostgresTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    // Sólo se usa para validar el usuario en save(); el lote valida usuarios con su propia consulta
+    @MockitoBean
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private OrdenService ordenService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Usuario ana;
+    private Usuario beto;
+    private Usuario carla;
+
+    @BeforeEach
+    void setUp() {
+        ana = testEntityManager.persist(usuario("ana", 10000001));
+        beto = testEntityManager.persist(usuario("beto", 10000002));
+        carla = testEntityManager.persist(usuario("carla", 10000003));
+        testEntityManager.flush();
+    }
+
+    @Test
+    void loteReservaIdsInsertaYAcumulaElResumen() {
+        // Una orden previa por JPA (columna identity): el resumen de ana ya existe antes del lote
+        Orden previa = ordenService.save(new Orden(null, ana, LocalDate.of(2025, 1, 15), "ENTREGADA", 1000.0, "Calle 1"));
+        testEntityManager.flush();
+
+        List<OrdenResponse> creadas = ordenService.saveAll(List.of(
+            request(ana, LocalDate.of(2025, 3, 1), 200.0),
+            request(beto, LocalDate.of(2025, 2, 1), 50.5),
+            request(ana, LocalDate.of(2024, 12, 1), 300.0),
+            request(carla, null, 10.0),
+            request(beto, LocalDate.of(2025, 4, 1), 49.5)));
+
+        assertEquals(5, creadas.size());
+        assertEquals(5, creadas.stream().map(OrdenResponse::getIdOrden).distinct().count());
+        for (OrdenResponse creada : creadas) {
+            assertTrue(creada.getIdOrden() > previa.getIdOrden(), "IDs tomados de la misma secuencia que JPA");
+            Map<String, Object> fila = jdbcTemplate.queryForMap(
+                "SELECT id_usuario, fecha_orden, estado, total_orden, direccion_envio FROM orden WHERE id_orden = ?",
+                creada.getIdOrden());
+            assertEquals(creada.getIdUsuario(), fila.get("id_usuario"));
+            assertEquals(creada.getFechaOrden(), ((java.sql.Date) fila.get("fecha_orden")).toLocalDate());
+            assertEquals(creada.getTotalOrden(), fila.get("total_orden"));
+            assertEquals("PENDIENTE", fila.get("estado"));
+        }
+        // Sin fecha se usa la de hoy
+        assertEquals(LocalDate.now(), creadas.get(3).getFechaOrden());
+
+        assertResumen(ana, 3, 1500.0, LocalDate.of(2025, 3, 1));
+        assertResumen(beto, 2, 100.0, LocalDate.of(2025, 4, 1));
+        assertResumen(carla, 1, 10.0, LocalDate.now());
+
+        // Una orden posterior por JPA no choca con los IDs reservados
+        Orden siguiente = ordenService.save(new Orden(null, beto, LocalDate.of(2025, 5, 1), "PENDIENTE", 1.0, "Calle 2"));
+        testEntityManager.flush();
+        assertTrue(creadas.stream().allMatch(c -> c.getIdOrden() < siguiente.getIdOrden()));
+        assertResumen(beto, 3, 101.0, LocalDate.of(2025, 5, 1));
+    }
+
+    @Test
+    void segundoLoteSumaSobreElResumenExistente() {
+        ordenService.saveAll(List.of(request(ana, LocalDate.of(2025, 6, 1), 100.0)));
+        ordenService.saveAll(List.of(
+            request(ana, LocalDate.of(2025, 5, 1), 25.0),
+            request(ana, LocalDate.of(2025, 5, 2), 25.0)));
+
+        // La última fecha no retrocede con órdenes más antiguas (GREATEST)
+        assertResumen(ana, 3, 150.0, LocalDate.of(2025, 6, 1));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orden WHERE id_usuario = ?",
+            Integer.class, ana.getIdUsuario()));
+    }
+
+    @Test
+    void usuarioInexistenteRechazaElLoteCompleto() {
+        int inexistente = carla.getIdUsuario() + 1000;
+        UsuarioNotFoundException e = assertThrows(UsuarioNotFoundException.class, () -> ordenService.saveAll(List.of(
+            request(ana, LocalDate.of(2025, 3, 1), 200.0),
+            new OrdenRequest(inexistente, LocalDate.of(2025, 3, 1), "PENDIENTE", 1.0, "Calle"))));
+
+        assertEquals("Usuarios no encontrados: [" + inexistente + "]", e.getMessage());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orden", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orden_resumen_usuario", Integer.class));
+    }
+
+    private void assertResumen(Usuario usuario, long cantidad, double total, LocalDate ultima) {
+        Map<String, Object> resumen = jdbcTemplate.queryForMap(
+            "SELECT cantidad_ordenes, total_gastado, ultima_orden FROM orden_resumen_usuario WHERE id_usuario = ?",
+            usuario.getIdUsuario());
+        assertNotNull(resumen);
+        assertEquals(cantidad, ((Number) resumen.get("cantidad_ordenes")).longValue(), usuario.getNombre());
+        assertEquals(total, ((Number) resumen.get("total_gastado")).doubleValue(), 0.001, usuario.getNombre());
+        assertEquals(ultima, ((java.sql.Date) resumen.get("ultima_orden")).toLocalDate(), usuario.getNombre());
+    }
+
+    private static OrdenRequest request(Usuario usuario, LocalDate fecha, double total) {
+        return new OrdenRequest(usuario.getIdUsuario(), fecha, "PENDIENTE", total, "Av. Providencia 456");
+    }
+
+    private static Usuario usuario(String nombre, int rut) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre(nombre);
+        usuario.setAPaterno("Paterno");
+        usuario.setAMaterno("Materno");
+        usuario.setRut(String.valueOf(rut));
+        usuario.setDv("9");
+        usuario.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        usuario.setIdRegion(13);
+        usuario.setDireccion("Dirección");
+        usuario.setEmail(nombre + "@test.cl");
+        usuario.setPasswordHashed("{bcrypt}hash");
+        return usuario;
+    }
+}
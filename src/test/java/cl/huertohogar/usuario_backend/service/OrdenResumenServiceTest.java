@@ -0,0 +1,59 @@
+package cl.huertohogar.usuario_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import cl.huertohogar.usuario_backend.dto.OrdenResponse;
+
+// Acumulado por usuario de un lote de órdenes (el upsert en sí se prueba contra PostgreSQL en OrdenLotePostgresTest)
+class OrdenResumenServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OrdenResumenService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new OrdenResumenService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registrarLoteEnviaUnaFilaPorUsuarioOrdenadaPorId() {
+        service.registrarLote(List.of(
+            orden(7, 1000.0, LocalDate.of(2025, 3, 1)),
+            orden(2, 500.0, LocalDate.of(2025, 1, 10)),
+            orden(7, 250.5, LocalDate.of(2025, 5, 20)),
+            orden(2, 100.0, LocalDate.of(2024, 12, 31)),
+            orden(7, 10.0, LocalDate.of(2025, 4, 1)),
+            orden(5, 99.9, LocalDate.of(2025, 2, 2))));
+
+        ArgumentCaptor<List<Object[]>> filas = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), filas.capture());
+
+        // id_usuario, cantidad_ordenes, total_gastado, ultima_orden; por id ascendente (orden de los locks)
+        List<Object[]> enviadas = filas.getValue();
+        assertEquals(3, enviadas.size());
+        assertArrayEquals(new Object[] { 2, 2L, 600.0, Date.valueOf("2025-01-10") }, enviadas.get(0));
+        assertArrayEquals(new Object[] { 5, 1L, 99.9, Date.valueOf("2025-02-02") }, enviadas.get(1));
+        assertArrayEquals(new Object[] { 7, 3L, 1260.5, Date.valueOf("2025-05-20") }, enviadas.get(2));
+    }
+
+    private static OrdenResponse orden(int idUsuario, double total, LocalDate fecha) {
+        return new OrdenResponse(null, idUsuario, fecha, "PENDIENTE", total, "Dirección");
+    }
+}
@@ -0,0 +1,96 @@
+package cl.huertohogar.usuario_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import cl.huertohogar.usuario_backend.dto.OrdenRequest;
+import cl.huertohogar.usuario_backend.exception.OrdenNotValidException;
+
+// Validación del lote de órdenes: se rechaza completo, indicando la posición, antes de tocar la base
+class OrdenServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private OrdenResumenService ordenResumenService;
+    private OrdenService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        ordenResumenService = mock(OrdenResumenService.class);
+        service = new OrdenService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "ordenResumenService", ordenResumenService);
+        ReflectionTestUtils.setField(service, "loteMaxSize", 3);
+        ReflectionTestUtils.setField(service, "jdbcBatchSize", 500);
+    }
+
+    @Test
+    void loteVacioOMuyGrande() {
+        assertError("El lote de órdenes no puede estar vacío", null);
+        assertError("El lote de órdenes no puede estar vacío", List.of());
+        assertError("El lote no puede tener más de 3 órdenes",
+            List.of(valida(), valida(), valida(), valida()));
+    }
+
+    @Test
+    void errorIndicaLaPosicionDeLaOrden() {
+        OrdenRequest sinUsuario = valida();
+        sinUsuario.setIdUsuario(null);
+        assertError("Orden 2: El usuario de la orden es obligatorio", List.of(valida(), sinUsuario));
+
+        OrdenRequest sinEstado = valida();
+        sinEstado.setEstado("  ");
+        assertError("Orden 1: El estado de la orden es obligatorio", List.of(sinEstado));
+
+        OrdenRequest totalCero = valida();
+        totalCero.setTotalOrden(0.0);
+        assertError("Orden 3: El total de la orden debe ser mayor a 0", List.of(valida(), valida(), totalCero));
+
+        OrdenRequest sinTotal = valida();
+        sinTotal.setTotalOrden(null);
+        assertError("Orden 1: El total de la orden debe ser mayor a 0", List.of(sinTotal));
+
+        OrdenRequest sinDireccion = valida();
+        sinDireccion.setDireccionEnvio("");
+        assertError("Orden 2: La dirección de envío es obligatoria", List.of(valida(), sinDireccion));
+
+        assertError("Orden 2: La orden no puede ser nula", Arrays.asList(valida(), null));
+    }
+
+    @Test
+    void primerErrorDelLoteEsElQueSeInforma() {
+        OrdenRequest sinEstado = valida();
+        sinEstado.setEstado(null);
+        OrdenRequest sinDireccion = valida();
+        sinDireccion.setDireccionEnvio(null);
+        List<OrdenRequest> lote = new ArrayList<>(List.of(valida(), sinDireccion, sinEstado));
+        assertError("Orden 2: La dirección de envío es obligatoria", lote);
+
+        Collections.swap(lote, 1, 2);
+        assertError("Orden 2: El estado de la orden es obligatorio", lote);
+    }
+
+    private void assertError(String mensaje, List<OrdenRequest> lote) {
+        OrdenNotValidException e = assertThrows(OrdenNotValidException.class, () -> service.saveAll(lote));
+        assertEquals(mensaje, e.getMessage());
+        // Un lote inválido no consulta ni escribe nada
+        verifyNoInteractions(jdbcTemplate, ordenResumenService);
+    }
+
+    private static OrdenRequest valida() {
+        return new OrdenRequest(1, LocalDate.of(2025, 11, 10), "PENDIENTE", 45990.5, "Av. Providencia 456");
+    }
+}
@@ -0,0 +1,77 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import cl.huertohogar.usuario_backend.config.PasswordProperties;
+
+// Benchmark de verificación de contraseñas por algoritmo, con un hilo por núcleo (como el pool de login).
+// No corre en el build normal:  ./mvnw test -Dtest=PasswordHashingBenchmarkTest -Dbenchmark=true
+// Parámetros opcionales: -Dbenchmark.seconds=10 -Dbenchmark.bcryptStrength=10
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PasswordHashingBenchmarkTest {
+
+    private static final String PASSWORD = "MiPassword123!";
+
+    @Test
+    void compararAlgoritmos() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seconds = Long.getLong("benchmark.seconds", 10);
+        int bcryptStrength = Integer.getInteger("benchmark.bcryptStrength", 10);
+        PasswordProperties properties = new PasswordProperties();
+
+        System.out.printf("%n%-8s %8s %12s %14s %10s %10s%n",
+            "algo", "hilos", "logins/s", "logins/s/core", "p50 ms", "p99 ms");
+        for (String algorithm : List.of(PasswordHashingService.BCRYPT, PasswordHashingService.ARGON2, PasswordHashingService.PBKDF2)) {
+            PasswordEncoder encoder = PasswordHashingService.buildPasswordEncoder(properties, algorithm, bcryptStrength);
+            String hash = encoder.encode(PASSWORD);
+            encoder.matches(PASSWORD, hash);  // calentamiento
+
+            long[] latencies = run(encoder, hash, threads, seconds);
+            double throughput = latencies.length / (double) seconds;
+            System.out.printf("%-8s %8d %12.1f %14.2f %10.1f %10.1f%n",
+                algorithm, threads, throughput, throughput / threads,
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+        }
+    }
+
+    private static long[] run(PasswordEncoder encoder, String hash, int threads, long seconds) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<List<Long>> perThread = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            List<Long> samples = new ArrayList<>();
+            perThread.add(samples);
+            Thread worker = new Thread(() -> {
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    encoder.matches(PASSWORD, hash);
+                    samples.add(System.nanoTime() - start);
+                }
+                done.countDown();
+            });
+            worker.start();
+        }
+
+        Thread.sleep(seconds * 1000);
+        running.set(false);
+        done.await();
+
+        return perThread.stream().flatMap(List::stream).mapToLong(Long::longValue).toArray();
+    }
+
+    private static double percentile(long[] latencies, double p) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,52 @@
+package cl.huertohogar.usuario_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import cl.huertohogar.usuario_backend.config.PasswordProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingServiceTest {
+
+    // Sólo importa el prefijo "$2a$NN$": needsRehash no verifica el resto del hash
+    private static final String SAL_Y_HASH = "abcdefghijklmnopqrstuvabcdefghijklmnopqrstuvwxyz01234";
+
+    private PasswordHashingService service;
+
+    @BeforeEach
+    void setUp() {
+        PasswordProperties properties = new PasswordProperties();
+        properties.setBcryptStrength(11);
+        service = new PasswordHashingService(properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void costoMenorSeRecalcula() {
+        assertTrue(service.needsRehash("{bcrypt}$2a$10$" + SAL_Y_HASH));
+        assertTrue(service.needsRehash("$2a$10$" + SAL_Y_HASH));
+    }
+
+    @Test
+    void costoIgualOMayorNoSeRecalcula() {
+        // Un nodo con hardware más lento (costo calibrado menor) no debe bajar el costo de hashes más fuertes
+        assertFalse(service.needsRehash("{bcrypt}$2a$11$" + SAL_Y_HASH));
+        assertFalse(service.needsRehash("{bcrypt}$2a$12$" + SAL_Y_HASH));
+        assertFalse(service.needsRehash("$2a$13$" + SAL_Y_HASH));
+    }
+
+    @Test
+    void otroAlgoritmoSeRecalcula() {
+        assertTrue(service.needsRehash("{pbkdf2}0123456789abcdef"));
+        assertTrue(service.needsRehash("{bcrypt}no-es-bcrypt"));
+        assertFalse(service.needsRehash(null));
+    }
+}
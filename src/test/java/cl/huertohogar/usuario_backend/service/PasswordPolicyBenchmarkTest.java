@@ -0,0 +1,66 @@
+package cl.huertohogar.usuario_backend.service;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import cl.huertohogar.usuario_backend.config.PasswordProperties;
+
+// Benchmark de la evaluación de contraseñas: regex (implementación anterior) contra la pasada única de
+// PasswordPolicyService (sin archivo de filtradas, para medir sólo la clasificación).
+// No corre en el build normal:  ./mvnw test -Dtest=PasswordPolicyBenchmarkTest -Dbenchmark=true
+// Parámetros opcionales: -Dbenchmark.seconds=5
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PasswordPolicyBenchmarkTest {
+
+    private static final Pattern PASSWORD_PATTERN = Pattern.compile(
+        "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$"
+    );
+
+    private static final List<String> PASSWORDS = List.of(
+        "MiPassword123!", "password", "Abc12345", "correcthorsebatterystaple",
+        "Tr0ub4dor&3xyzW", "12345678", "Q!w2E#r4T%y6U&i8", "holaMundo2024?");
+
+    @Test
+    void compararRegexConPasadaUnica() {
+        long seconds = Long.getLong("benchmark.seconds", 5);
+        PasswordPolicyService policy = new PasswordPolicyService(new PasswordProperties());
+
+        System.out.printf("%n%-12s %16s %12s%n", "método", "evaluaciones/s", "ns/eval");
+        report("regex", seconds, PasswordPolicyBenchmarkTest::regex);
+        report("pasada", seconds, password -> policy.evaluate(password).valid() ? 1 : 0);
+    }
+
+    // Implementación anterior de isValidPassword + getPasswordStrength
+    private static int regex(String password) {
+        boolean valid = PASSWORD_PATTERN.matcher(password).matches();
+        int strength = 0;
+        if (password.matches(".*[a-z].*")) strength++;
+        if (password.matches(".*[A-Z].*")) strength++;
+        if (password.matches(".*\\d.*")) strength++;
+        if (password.matches(".*[@$!%*?&].*")) strength++;
+        return (valid ? 1 : 0) + strength;
+    }
+
+    private static void report(String name, long seconds, ToIntFunction<String> evaluation) {
+        int sink = 0;
+        // Calentamiento para que el JIT compile ambas variantes antes de medir
+        for (int i = 0; i < 200_000; i++) {
+            sink += evaluation.applyAsInt(PASSWORDS.get(i % PASSWORDS.size()));
+        }
+        long count = 0;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < 1000; i++) {
+                sink += evaluation.applyAsInt(PASSWORDS.get(i % PASSWORDS.size()));
+            }
+            count += 1000;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-12s %16.0f %12.1f   (%d)%n", name, count / (elapsed / 1e9), elapsed / (double) count, sink & 1);
+    }
+}
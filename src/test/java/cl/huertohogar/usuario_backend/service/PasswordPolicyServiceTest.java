@@ -0,0 +1,164 @@
+package cl.huertohogar.usuario_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cl.huertohogar.usuario_backend.config.PasswordProperties;
+
+// Búsqueda de contraseñas filtradas sobre un archivo pequeño de SHA-1 ordenados, armado en el test
+class PasswordPolicyServiceTest {
+
+    private static final int FILTRADAS = 200_000;  // ~3 hashes por prefijo de 16 bits
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void encuentraTodasLasFiltradasYNingunaOtra() throws Exception {
+        List<Entrada> entradas = entradas("filtrada-", FILTRADAS);
+        PasswordPolicyService policy = policy(escribir(entradas, 0));
+
+        assertEquals(FILTRADAS, policy.getBreachedHashCount());
+        for (Entrada entrada : entradas) {
+            assertTrue(policy.isBreached(entrada.password()), entrada.password());
+        }
+        for (int i = 0; i < FILTRADAS; i++) {
+            assertFalse(policy.isBreached("ausente-" + i));
+        }
+    }
+
+    @Test
+    void primeroUltimoYBordesDePrefijo() throws Exception {
+        List<Entrada> entradas = entradas("filtrada-", FILTRADAS);
+        PasswordPolicyService policy = policy(escribir(entradas, 0));
+
+        assertTrue(policy.isBreached(entradas.get(0).password()), "primer registro del archivo");
+        assertTrue(policy.isBreached(entradas.get(entradas.size() - 1).password()), "último registro del archivo");
+
+        // Primer y último registro de cada prefijo de 16 bits (los límites del índice)
+        int bordes = 0;
+        for (int i = 0; i < entradas.size(); i++) {
+            boolean primero = i == 0 || prefijo(entradas.get(i - 1)) != prefijo(entradas.get(i));
+            boolean ultimo = i == entradas.size() - 1 || prefijo(entradas.get(i + 1)) != prefijo(entradas.get(i));
+            if (primero || ultimo) {
+                assertTrue(policy.isBreached(entradas.get(i).password()), entradas.get(i).password());
+                bordes++;
+            }
+        }
+        assertTrue(bordes > 60_000);
+    }
+
+    // Vecinos que sólo difieren en el último byte: obliga a comparar más allá de los primeros 8 bytes
+    @Test
+    void hashCasiIgualNoCuenta() throws Exception {
+        List<Entrada> ausentes = entradas("vecina-", 1000);
+        List<Entrada> vecinos = new ArrayList<>();
+        for (Entrada entrada : ausentes) {
+            for (int delta : new int[] { -1, 1 }) {
+                byte[] hash = entrada.hash().clone();
+                hash[19] = (byte) (hash[19] + delta);
+                vecinos.add(new Entrada(entrada.password() + delta, hash));
+            }
+        }
+        vecinos.sort(Comparator.comparing(Entrada::hash, Arrays::compareUnsigned));
+        PasswordPolicyService policy = policy(escribir(vecinos, 0));
+
+        for (Entrada entrada : ausentes) {
+            assertFalse(policy.isBreached(entrada.password()), entrada.password());
+        }
+    }
+
+    @Test
+    void prefijosExtremos() throws Exception {
+        // Hashes con prefijo 0x0000 y 0xffff (primer y último segmento del índice) más uno real en medio
+        byte[] minimo = new byte[20];
+        byte[] maximo = new byte[20];
+        Arrays.fill(maximo, (byte) 0xff);
+        Entrada real = entradas("real-", 1).get(0);
+        PasswordPolicyService policy = policy(escribir(
+            List.of(new Entrada("min", minimo), real, new Entrada("max", maximo)), 0));
+
+        assertTrue(policy.isBreached(real.password()));
+        assertFalse(policy.isBreached("otra"));
+    }
+
+    @Test
+    void restoIncompletoSeIgnora() throws Exception {
+        List<Entrada> entradas = entradas("filtrada-", 100);
+        PasswordPolicyService policy = policy(escribir(entradas, 7));
+
+        assertEquals(100, policy.getBreachedHashCount());
+        for (Entrada entrada : entradas) {
+            assertTrue(policy.isBreached(entrada.password()));
+        }
+    }
+
+    @Test
+    void sinArchivoNadaEstaFiltrado() {
+        PasswordPolicyService policy = new PasswordPolicyService(new PasswordProperties());
+        assertFalse(policy.isBreached("password"));
+        assertTrue(policy.evaluate("MiPassword123!").valid());
+    }
+
+    @Test
+    void contrasenaFiltradaNoEsValida() throws Exception {
+        PasswordPolicyService policy = policy(escribir(entradas("MiPassword123!", 1), 0));
+        // entradas() agrega el índice al final: la filtrada es "MiPassword123!0"
+        PasswordPolicyService.Evaluation evaluacion = policy.evaluate("MiPassword123!0");
+
+        assertTrue(evaluacion.breached());
+        assertFalse(evaluacion.valid());
+        assertEquals(PasswordPolicyService.DEBIL, evaluacion.strength());
+    }
+
+    private record Entrada(String password, byte[] hash) {
+    }
+
+    // Contraseñas prefijo + i con su SHA-1, ordenadas por hash como en el archivo
+    private static List<Entrada> entradas(String prefijo, int cantidad) throws Exception {
+        MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+        List<Entrada> entradas = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            String password = prefijo + i;
+            entradas.add(new Entrada(password, sha1.digest(password.getBytes(StandardCharsets.UTF_8))));
+        }
+        entradas.sort(Comparator.comparing(Entrada::hash, Arrays::compareUnsigned));
+        return entradas;
+    }
+
+    private static int prefijo(Entrada entrada) {
+        return ((entrada.hash()[0] & 0xff) << 8) | (entrada.hash()[1] & 0xff);
+    }
+
+    private Path escribir(List<Entrada> entradas, int bytesSobrantes) throws IOException {
+        Path file = Files.createTempFile(dir, "pwned", ".bin");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (Entrada entrada : entradas) {
+                out.write(entrada.hash());
+            }
+            out.write(new byte[bytesSobrantes]);
+        }
+        return file;
+    }
+
+    private static PasswordPolicyService policy(Path file) {
+        PasswordProperties properties = new PasswordProperties();
+        properties.setBreachedHashFile(file.toString());
+        return new PasswordPolicyService(properties);
+    }
+}
@@ -0,0 +1,94 @@
+package cl.huertohogar.usuario_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Cache de nombres públicos con la base simulada: una invalidación que llega mientras se lee la fila
+// anterior no deja el nombre viejo en cache
+class PublicNameServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PublicNameService service;
+    // Nombre que "tiene" la base para el usuario 1; la acción corre en medio de la consulta
+    private final AtomicReference<String> nombreEnBase = new AtomicReference<>("Viejo");
+    private Runnable duranteLaConsulta = () -> { };
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        PublicNameDirectory directory = mock(PublicNameDirectory.class);
+        when(directory.isReady()).thenReturn(false);
+
+        service = new PublicNameService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "directory", directory);
+        ReflectionTestUtils.setField(service, "cacheSize", 1000L);
+        ReflectionTestUtils.setField(service, "cacheTtl", 600_000L);
+        service.init();
+
+        doAnswer(invocation -> {
+            String leido = nombreEnBase.get();
+            duranteLaConsulta.run();
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getInt(1)).thenReturn(1);
+            when(rs.getString(2)).thenReturn(leido);
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void segundaLecturaSaleDelCache() {
+        assertEquals(Map.of(1, "Viejo"), service.findNombres(List.of(1)));
+        assertEquals("Viejo", service.findNombre(1));
+        verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void lecturaConcurrenteConUnCambioNoCacheaElNombreViejo() {
+        // La consulta leyó "Viejo"; antes de cachearlo se confirma el cambio y llega su invalidación
+        duranteLaConsulta = () -> {
+            nombreEnBase.set("Nuevo");
+            service.evict(1);
+        };
+        assertEquals("Viejo", service.findNombre(1));
+
+        duranteLaConsulta = () -> { };
+        assertEquals("Nuevo", service.findNombre(1));
+        assertEquals("Nuevo", service.findNombre(1));
+        verify(jdbcTemplate, times(2)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void evictAllTambienDescartaLecturasEnCurso() {
+        duranteLaConsulta = () -> {
+            nombreEnBase.set("Nuevo");
+            service.evictAll();
+        };
+        service.findNombre(1);
+
+        duranteLaConsulta = () -> { };
+        assertEquals("Nuevo", service.findNombre(1));
+    }
+}
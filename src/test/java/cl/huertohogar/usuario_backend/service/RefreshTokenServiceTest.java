@@ -0,0 +1,176 @@
+package cl.huertohogar.usuario_backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import cl.huertohogar.usuario_backend.exception.AuthenticationFailedException;
+import cl.huertohogar.usuario_backend.model.RefreshToken;
+import cl.huertohogar.usuario_backend.model.Usuario;
+import cl.huertohogar.usuario_backend.repository.RefreshTokenRepository;
+import cl.huertohogar.usuario_backend.repository.UsuarioRepository;
+
+// Rotación, detección de reuso y limpieza de refresh tokens sobre H2 en memoria.
+// Entre pasos se vacía el persistence context para que cada llamada lea la base, como requests separados.
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never"
+})
+@Import(RefreshTokenService.class)
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = usuarioRepository.save(usuario());
+    }
+
+    @Test
+    void rotacionEntregaUnTokenNuevoDeLaMismaFamilia() {
+        String original = refreshTokenService.issue(usuario.getIdUsuario());
+        limpiar();
+
+        RefreshTokenService.Rotation rotacion = refreshTokenService.rotate(original);
+        limpiar();
+
+        assertNotEquals(original, rotacion.refreshToken());
+        assertEquals(usuario.getIdUsuario(), rotacion.usuario().getIdUsuario());
+        List<RefreshToken> tokens = refreshTokenRepository.findAll();
+        assertEquals(2, tokens.size());
+        assertEquals(tokens.get(0).getFamilyId(), tokens.get(1).getFamilyId());
+        assertEquals(1, tokens.stream().filter(RefreshToken::isRevoked).count(), "sólo el token usado queda revocado");
+
+        // El token nuevo sigue sirviendo
+        refreshTokenService.rotate(rotacion.refreshToken());
+    }
+
+    @Test
+    void reusoRevocaTodaLaFamilia() {
+        String original = refreshTokenService.issue(usuario.getIdUsuario());
+        String otraFamilia = refreshTokenService.issue(usuario.getIdUsuario());
+        limpiar();
+        String rotado = refreshTokenService.rotate(original).refreshToken();
+        limpiar();
+
+        // El token original se presenta otra vez (robado): falla y arrastra al token vigente de su familia
+        assertThrows(AuthenticationFailedException.class, () -> refreshTokenService.rotate(original));
+        limpiar();
+        assertThrows(AuthenticationFailedException.class, () -> refreshTokenService.rotate(rotado));
+        limpiar();
+
+        // Otras sesiones (otras familias) del mismo usuario no se ven afectadas
+        refreshTokenService.rotate(otraFamilia);
+    }
+
+    @Test
+    void tokenExpiradoSeRechaza() {
+        String token = refreshTokenService.issue(usuario.getIdUsuario());
+        RefreshToken guardado = refreshTokenRepository.findAll().get(0);
+        guardado.setExpiresAt(Instant.now().minusSeconds(60));
+        limpiar();
+
+        AuthenticationFailedException e = assertThrows(AuthenticationFailedException.class,
+            () -> refreshTokenService.rotate(token));
+        assertEquals("Refresh token expirado", e.getMessage());
+    }
+
+    @Test
+    void tokenDesconocidoOVacioSeRechaza() {
+        assertThrows(AuthenticationFailedException.class, () -> refreshTokenService.rotate("no-existe"));
+        assertThrows(AuthenticationFailedException.class, () -> refreshTokenService.rotate(" "));
+        assertThrows(AuthenticationFailedException.class, () -> refreshTokenService.rotate(null));
+    }
+
+    @Test
+    void revokeAllInvalidaTodasLasSesiones() {
+        String a = refreshTokenService.issue(usuario.getIdUsuario());
+        String b = refreshTokenService.issue(usuario.getIdUsuario());
+        refreshTokenService.revokeAll(usuario.getIdUsuario());
+        limpiar();
+
+        assertThrows(AuthenticationFailedException.class, () -> refreshTokenService.rotate(a));
+        limpiar();
+        assertThrows(AuthenticationFailedException.class, () -> refreshTokenService.rotate(b));
+    }
+
+    // deleteExpired corre fuera de transacción (un lote por transacción): los datos tienen que estar confirmados
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void deleteExpiredBorraEnVariosLotesSoloLosExpirados() {
+        int expirados = 2_500;  // más de dos lotes de CLEANUP_BATCH_SIZE
+        try {
+            Instant ahora = Instant.now();
+            List<RefreshToken> tokens = new ArrayList<>();
+            for (int i = 0; i < expirados + 3; i++) {
+                RefreshToken token = new RefreshToken();
+                token.setTokenHash(String.format("%064d", i));
+                token.setFamilyId("familia-" + i);
+                token.setUsuario(usuario);
+                token.setCreatedAt(ahora.minusSeconds(7200));
+                token.setExpiresAt(i < expirados ? ahora.minusSeconds(60) : ahora.plusSeconds(3600));
+                tokens.add(token);
+            }
+            refreshTokenRepository.saveAll(tokens);
+
+            refreshTokenService.deleteExpired();
+
+            List<RefreshToken> restantes = refreshTokenRepository.findAll();
+            assertEquals(3, restantes.size());
+            assertTrue(restantes.stream().allMatch(t -> t.getExpiresAt().isAfter(ahora)));
+        } finally {
+            refreshTokenRepository.deleteAll();
+            usuarioRepository.deleteAll();
+        }
+    }
+
+    private void limpiar() {
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    private static Usuario usuario() {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Nombre");
+        usuario.setAPaterno("Paterno");
+        usuario.setAMaterno("Materno");
+        usuario.setRut("10000000");
+        usuario.setDv("9");
+        usuario.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        usuario.setIdRegion(13);
+        usuario.setDireccion("Dirección");
+        usuario.setEmail("usuario@test.cl");
+        usuario.setPasswordHashed("{bcrypt}hash");
+        return usuario;
+    }
+}
@@ -0,0 +1,85 @@
+package cl.huertohogar.usuario_backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    private static final int INSERTADOS = 100_000;
+
+    @Test
+    void noHayFalsosNegativos() {
+        BloomFilter filter = new BloomFilter(INSERTADOS, 0.01);
+        for (int i = 0; i < INSERTADOS; i++) {
+            filter.put(email(i));
+        }
+        for (int i = 0; i < INSERTADOS; i++) {
+            assertTrue(filter.mightContain(email(i)), email(i));
+        }
+    }
+
+    @Test
+    void tasaDeFalsosPositivosCercanaALaConfigurada() {
+        for (double fpp : new double[] { 0.01, 0.001 }) {
+            BloomFilter filter = new BloomFilter(INSERTADOS, fpp);
+            for (int i = 0; i < INSERTADOS; i++) {
+                filter.put(email(i));
+            }
+            int consultas = 200_000;
+            int falsosPositivos = 0;
+            for (int i = INSERTADOS; i < INSERTADOS + consultas; i++) {
+                if (filter.mightContain(email(i))) {
+                    falsosPositivos++;
+                }
+            }
+            double tasa = (double) falsosPositivos / consultas;
+            // Holgura amplia: el objetivo es detectar un filtro roto (hashes correlacionados, tamaño mal calculado)
+            assertTrue(tasa < fpp * 2, "tasa " + tasa + " para fpp " + fpp);
+        }
+    }
+
+    @Test
+    void filtroVacioNoContieneNada() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        assertFalse(filter.mightContain("foo@x.cl"));
+        assertFalse(filter.mightContain(""));
+    }
+
+    @Test
+    void putConcurrenteNoPierdeBits() throws Exception {
+        BloomFilter filter = new BloomFilter(INSERTADOS, 0.01);
+        int hilos = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int t = 0; t < hilos; t++) {
+                int desde = t;
+                tareas.add(executor.submit(() -> {
+                    for (int i = desde; i < INSERTADOS; i += hilos) {
+                        filter.put(email(i));
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        for (int i = 0; i < INSERTADOS; i++) {
+            assertTrue(filter.mightContain(email(i)), email(i));
+        }
+    }
+
+    private static String email(int i) {
+        return "usuario" + i + "@huertohogar.cl";
+    }
+}
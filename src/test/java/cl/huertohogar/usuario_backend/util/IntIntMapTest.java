@@ -0,0 +1,62 @@
+package cl.huertohogar.usuario_backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntIntMapTest {
+
+    @Test
+    void llaveAusenteDevuelveCero() {
+        IntIntMap map = new IntIntMap(4);
+        assertEquals(0, map.get(7));
+        map.put(7, 3);
+        assertEquals(3, map.get(7));
+        assertEquals(0, map.get(8));
+    }
+
+    @Test
+    void noAceptaCero() {
+        IntIntMap map = new IntIntMap(4);
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, 0));
+    }
+
+    @Test
+    void creceYConservaLasEntradas() {
+        IntIntMap map = new IntIntMap(1);
+        int capacidadInicial = map.capacity();
+        for (int i = 1; i <= 10_000; i++) {
+            map.put(i, i * 2);
+        }
+        assertEquals(10_000, map.size());
+        assertTrue(map.capacity() > capacidadInicial);
+        for (int i = 1; i <= 10_000; i++) {
+            assertEquals(i * 2, map.get(i));
+        }
+    }
+
+    @Test
+    void coincideConHashMap() {
+        Random random = new Random(42);
+        IntIntMap map = new IntIntMap(16);
+        Map<Integer, Integer> oraculo = new HashMap<>();
+        for (int op = 0; op < 200_000; op++) {
+            int key = random.nextInt(5_000) - 2_500;  // incluye negativas y el 0
+            if (random.nextBoolean()) {
+                int value = random.nextInt(1_000) + 1;
+                map.put(key, value);
+                oraculo.put(key, value);
+            } else {
+                assertEquals(oraculo.getOrDefault(key, 0), map.get(key));
+            }
+        }
+        assertEquals(oraculo.size(), map.size());
+        oraculo.forEach((k, v) -> assertEquals(v, map.get(k)));
+    }
+}
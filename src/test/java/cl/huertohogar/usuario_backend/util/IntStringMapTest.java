@@ -0,0 +1,163 @@
+package cl.huertohogar.usuario_backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntStringMapTest {
+
+    // Capacidad de new IntStringMap(8): 16 posiciones, hasta 11 entradas sin redimensionar
+    private static final int CAPACIDAD = 16;
+
+    @Test
+    void putGetYReemplazo() {
+        IntStringMap map = new IntStringMap(8);
+        assertNull(map.get(1));
+        map.put(1, "a");
+        map.put(-5, "b");
+        map.put(0, "c");
+        map.put(1, "d");
+        assertEquals("d", map.get(1));
+        assertEquals("b", map.get(-5));
+        assertEquals("c", map.get(0));
+        assertEquals(3, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(2, null));
+    }
+
+    @Test
+    void llavesQueColisionan() {
+        IntStringMap map = new IntStringMap(8);
+        assertEquals(CAPACIDAD, map.capacity());
+        List<Integer> llaves = llavesConPosicion(3, 5, CAPACIDAD);
+        for (int llave : llaves) {
+            map.put(llave, "v" + llave);
+        }
+        for (int llave : llaves) {
+            assertEquals("v" + llave, map.get(llave));
+        }
+        // Una llave ausente con la misma posición ideal recorre toda la cadena y no la encuentra
+        assertNull(map.get(llavesConPosicion(3, 6, CAPACIDAD).get(5)));
+    }
+
+    @Test
+    void borrarEnMedioDeUnaCadena() {
+        IntStringMap map = new IntStringMap(8);
+        List<Integer> llaves = llavesConPosicion(7, 5, CAPACIDAD);
+        for (int llave : llaves) {
+            map.put(llave, "v" + llave);
+        }
+        // Una llave de otra posición ideal intercalada en la cadena (cae en la posición 12)
+        int vecina = llavesConPosicion(8, 1, CAPACIDAD).get(0);
+        map.put(vecina, "vecina");
+
+        assertTrue(map.remove(llaves.get(1)));
+        assertFalse(map.remove(llaves.get(1)));
+        assertNull(map.get(llaves.get(1)));
+        for (int i = 0; i < llaves.size(); i++) {
+            if (i != 1) {
+                assertEquals("v" + llaves.get(i), map.get(llaves.get(i)), "el desplazamiento no debe perder " + i);
+            }
+        }
+        assertEquals("vecina", map.get(vecina));
+        assertEquals(5, map.size());
+
+        // El hueco se puede reutilizar
+        map.put(llaves.get(1), "otra vez");
+        assertEquals("otra vez", map.get(llaves.get(1)));
+    }
+
+    @Test
+    void cadenaQueDaLaVueltaAlFinalDeLaTabla() {
+        IntStringMap map = new IntStringMap(8);
+        // Posición ideal 14: ocupan 14, 15, 0, 1, 2
+        List<Integer> llaves = llavesConPosicion(14, 5, CAPACIDAD);
+        for (int llave : llaves) {
+            map.put(llave, "v" + llave);
+        }
+        // Una llave cuya posición ideal es 0 queda detrás de la cadena, después de la vuelta
+        int enCero = llavesConPosicion(0, 1, CAPACIDAD).get(0);
+        map.put(enCero, "cero");
+        for (int llave : llaves) {
+            assertEquals("v" + llave, map.get(llave));
+        }
+
+        // Borrar antes del final de la tabla obliga a mover entradas a través de la vuelta
+        assertTrue(map.remove(llaves.get(0)));
+        assertTrue(map.remove(llaves.get(2)));
+        assertEquals("cero", map.get(enCero));
+        for (int i : new int[] { 1, 3, 4 }) {
+            assertEquals("v" + llaves.get(i), map.get(llaves.get(i)));
+        }
+        assertEquals(4, map.size());
+        assertEquals(CAPACIDAD, map.capacity());
+    }
+
+    @Test
+    void creceAlSuperarLaCargaMaxima() {
+        IntStringMap map = new IntStringMap(8);
+        for (int i = 0; i < 11; i++) {
+            map.put(i, "v" + i);
+        }
+        assertEquals(CAPACIDAD, map.capacity());
+        map.put(11, "v11");
+        assertEquals(CAPACIDAD * 2, map.capacity());
+        for (int i = 0; i < 100_000; i++) {
+            map.put(i, "v" + i);
+        }
+        assertEquals(100_000, map.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals("v" + i, map.get(i));
+        }
+    }
+
+    @Test
+    void coincideConHashMap() {
+        Random random = new Random(7);
+        // Pocas llaves sobre una tabla chica: muchas colisiones, borrados y reinserciones
+        for (int rango : new int[] { 64, 5_000, Integer.MAX_VALUE }) {
+            IntStringMap map = new IntStringMap(4);
+            Map<Integer, String> oraculo = new HashMap<>();
+            for (int op = 0; op < 300_000; op++) {
+                int key = rango == Integer.MAX_VALUE ? random.nextInt() : random.nextInt(rango) - rango / 2;
+                switch (random.nextInt(3)) {
+                    case 0 -> {
+                        String value = "v" + op;
+                        map.put(key, value);
+                        oraculo.put(key, value);
+                    }
+                    case 1 -> assertEquals(oraculo.remove(key) != null, map.remove(key));
+                    default -> assertEquals(oraculo.get(key), map.get(key));
+                }
+                if (op % 10_000 == 0) {
+                    assertEquals(oraculo.size(), map.size());
+                }
+            }
+            assertEquals(oraculo.size(), map.size());
+            for (Map.Entry<Integer, String> entry : oraculo.entrySet()) {
+                assertEquals(entry.getValue(), map.get(entry.getKey()));
+            }
+        }
+    }
+
+    // Llaves cuya posición ideal es "posicion" en una tabla de "capacidad" (mismo mezclado que IntStringMap)
+    private static List<Integer> llavesConPosicion(int posicion, int cantidad, int capacidad) {
+        List<Integer> llaves = new ArrayList<>();
+        for (int key = 1; llaves.size() < cantidad; key++) {
+            int h = key * 0x9E3779B9;
+            if (((h ^ (h >>> 16)) & (capacidad - 1)) == posicion) {
+                llaves.add(key);
+            }
+        }
+        return llaves;
+    }
+}
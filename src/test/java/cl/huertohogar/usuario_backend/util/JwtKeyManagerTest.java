@@ -0,0 +1,165 @@
+package cl.huertohogar.usuario_backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import cl.huertohogar.usuario_backend.config.JwtProperties;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtKeyManagerTest {
+
+    private static final String SECRET = "profesorsaavedraporfavorpongame-un-7-en-el-examenporfavorgracias";
+
+    private JwtProperties properties;
+    private VerifiedTokenCache tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        tokenCache = new VerifiedTokenCache(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void hs256SimpleAceptaTokensSinKid() {
+        JwtKeyManager manager = iniciar();
+
+        assertNull(manager.getSigningKeyId());
+        assertEquals("1", parser(manager).parseSignedClaims(tokenHs256SinKid()).getPayload().getSubject());
+    }
+
+    @Test
+    void conEs256SeRechazaHs256SinKid() {
+        properties.setAlgorithm("ES256");
+        properties.setKeyId("es-1");
+        JwtKeyManager manager = iniciar();
+
+        // Cualquiera que conozca jwt.secret podría fabricar este token con otro sub/rol
+        assertThrows(JwtException.class, () -> parser(manager).parseSignedClaims(tokenHs256SinKid()));
+
+        String token = Jwts.builder()
+            .header().keyId(manager.getSigningKeyId()).and()
+            .subject("2")
+            .expiration(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)))
+            .signWith(manager.getSigningKey())
+            .compact();
+        assertEquals("2", parser(manager).parseSignedClaims(token).getPayload().getSubject());
+    }
+
+    @Test
+    void hs256SinKidSeAceptaSoloHastaElLimite() {
+        properties.setAlgorithm("ES256");
+        properties.setLegacyHs256AcceptUntil(Instant.now().plus(1, ChronoUnit.HOURS).toString());
+        JwtKeyManager vigente = iniciar();
+        assertNotNull(parser(vigente).parseSignedClaims(tokenHs256SinKid()));
+
+        properties.setLegacyHs256AcceptUntil(Instant.now().minus(1, ChronoUnit.SECONDS).toString());
+        JwtKeyManager vencido = iniciar();
+        assertThrows(JwtException.class, () -> parser(vencido).parseSignedClaims(tokenHs256SinKid()));
+    }
+
+    @Test
+    void alRetirarLaLlaveSinKidSeLimpiaElCache() throws InterruptedException {
+        properties.setAlgorithm("ES256");
+        // Holgura para generar el par ES256 temporal antes del retiro
+        Instant retiro = Instant.now().plusSeconds(3);
+        properties.setLegacyHs256AcceptUntil(retiro.toString());
+        JwtKeyManager manager = iniciar();
+        String token = tokenHs256SinKid();
+        tokenCache.put(token, principalDe(parser(manager).parseSignedClaims(token).getPayload().getSubject()));
+
+        esperarHasta(retiro);
+        // Rechazado desde el retire-at aunque el anillo todavía no se recargue
+        assertThrows(JwtException.class, () -> parser(manager).parseSignedClaims(token));
+
+        manager.refresh();
+        assertNull(tokenCache.get(token));
+    }
+
+    @Test
+    void llaveDelAnilloConRetireAtDejaDeVerificar() throws InterruptedException {
+        Instant retiro = Instant.now().plusSeconds(1);
+        properties.setKeys(List.of(
+            llaveHmac("viejo", Instant.EPOCH, retiro),
+            llaveHmac("nuevo", Instant.now().minusSeconds(1), null)));
+        JwtKeyManager manager = iniciar();
+        assertEquals("nuevo", manager.getSigningKeyId());
+
+        String viejo = tokenHs256("viejo");
+        String nuevo = tokenHs256("nuevo");
+        tokenCache.put(viejo, principalDe("1"));
+        assertNotNull(parser(manager).parseSignedClaims(viejo));
+
+        esperarHasta(retiro);
+        assertThrows(JwtException.class, () -> parser(manager).parseSignedClaims(viejo));
+        assertNotNull(parser(manager).parseSignedClaims(nuevo));
+
+        manager.refresh();
+        assertNull(tokenCache.get(viejo));
+        assertFalse(manager.getJwksJson().contains("viejo"));
+    }
+
+    private JwtKeyManager iniciar() {
+        JwtKeyManager manager = new JwtKeyManager();
+        ReflectionTestUtils.setField(manager, "jwtProperties", properties);
+        ReflectionTestUtils.setField(manager, "tokenCache", tokenCache);
+        manager.init();
+        return manager;
+    }
+
+    private static void esperarHasta(Instant instante) throws InterruptedException {
+        Thread.sleep(Math.max(0, instante.toEpochMilli() - System.currentTimeMillis()) + 50);
+    }
+
+    private static JwtParser parser(JwtKeyManager manager) {
+        return Jwts.parser().keyLocator(manager.keyLocator()).build();
+    }
+
+    private static JwtProperties.RingKey llaveHmac(String kid, Instant activateAt, Instant retireAt) {
+        JwtProperties.RingKey key = new JwtProperties.RingKey();
+        key.setKid(kid);
+        key.setSecret(kid + "-" + SECRET);
+        key.setActivateAt(activateAt.toString());
+        key.setRetireAt(retireAt == null ? null : retireAt.toString());
+        return key;
+    }
+
+    private static String tokenHs256(String kid) {
+        return Jwts.builder()
+            .header().keyId(kid).and()
+            .subject("1")
+            .expiration(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)))
+            .signWith(Keys.hmacShaKeyFor((kid + "-" + SECRET).getBytes(StandardCharsets.UTF_8)))
+            .compact();
+    }
+
+    private static TokenPrincipal principalDe(String subject) {
+        return new TokenPrincipal(Integer.parseInt(subject), "a@b.cl", "ADMIN", 0, Instant.now().plus(1, ChronoUnit.HOURS));
+    }
+
+    private static String tokenHs256SinKid() {
+        return Jwts.builder()
+            .subject("1")
+            .claim("rol", "ADMIN")
+            .expiration(Date.from(Instant.now().plus(1, ChronoUnit.HOURS)))
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+            .compact();
+    }
+}
@@ -0,0 +1,106 @@
+package cl.huertohogar.usuario_backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+// Negociación de Accept-Encoding y 304 por ETag de la variante seleccionada
+class PrecompressedJsonTest {
+
+    private static final byte[] JSON = ("[" + "{\"idRegion\":1,\"nombre\":\"Región Metropolitana\"},".repeat(50)
+        + "{\"idRegion\":2,\"nombre\":\"Valparaíso\"}]").getBytes(StandardCharsets.UTF_8);
+
+    private final PrecompressedJson json = PrecompressedJson.of(JSON);
+
+    @Test
+    void eligeGzipSegunTodasLasCodificaciones() {
+        assertGzip("gzip");
+        assertGzip("GZIP, deflate");
+        assertGzip("deflate, gzip;q=0.5");
+        assertGzip("x-gzip");
+        assertGzip("*");
+        // gzip explícito manda sobre "*", esté antes o después
+        assertGzip("*;q=0, gzip");
+        assertGzip("gzip, *;q=0");
+        assertGzip("br, *;q=0.1");
+
+        assertIdentity(null);
+        assertIdentity("");
+        assertIdentity("deflate, br");
+        assertIdentity("gzip;q=0");
+        assertIdentity("gzip; Q=0.000");
+        assertIdentity("gzip;q=0, *");
+        assertIdentity("*;q=0");
+        assertIdentity("gzip;q=abc");
+    }
+
+    @Test
+    void cuerpoGzipDescomprimeAlJsonOriginal() throws IOException {
+        ResponseEntity<byte[]> response = json.toResponse(null, "gzip", CacheControl.noCache());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            assertArrayEquals(JSON, in.readAllBytes());
+        }
+        assertArrayEquals(JSON, json.toResponse(null, null, CacheControl.noCache()).getBody());
+    }
+
+    @Test
+    void cadaVarianteTieneSuEtag() {
+        String gzipEtag = json.toResponse(null, "gzip", CacheControl.noCache()).getHeaders().getETag();
+        String identityEtag = json.toResponse(null, null, CacheControl.noCache()).getHeaders().getETag();
+        assertNotEquals(gzipEtag, identityEtag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, json.toResponse(gzipEtag, "gzip", CacheControl.noCache()).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, json.toResponse(identityEtag, null, CacheControl.noCache()).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED,
+            json.toResponse("\"otro\", W/" + gzipEtag, "gzip", CacheControl.noCache()).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, json.toResponse("*", null, CacheControl.noCache()).getStatusCode());
+    }
+
+    @Test
+    void etagDeLaOtraVarianteNoDa304() {
+        String gzipEtag = json.toResponse(null, "gzip", CacheControl.noCache()).getHeaders().getETag();
+        String identityEtag = json.toResponse(null, null, CacheControl.noCache()).getHeaders().getETag();
+
+        // El cliente guardó la variante gzip pero ahora no acepta gzip: recibe la identidad completa
+        ResponseEntity<byte[]> identity = json.toResponse(gzipEtag, "identity", CacheControl.noCache());
+        assertEquals(HttpStatus.OK, identity.getStatusCode());
+        assertEquals(identityEtag, identity.getHeaders().getETag());
+        assertArrayEquals(JSON, identity.getBody());
+
+        ResponseEntity<byte[]> gzip = json.toResponse(identityEtag, "gzip", CacheControl.noCache());
+        assertEquals(HttpStatus.OK, gzip.getStatusCode());
+        assertEquals(gzipEtag, gzip.getHeaders().getETag());
+    }
+
+    @Test
+    void noComprimeSiNoAhorra() {
+        PrecompressedJson corto = PrecompressedJson.of("[]".getBytes(StandardCharsets.UTF_8));
+        ResponseEntity<byte[]> response = corto.toResponse(null, "gzip", CacheControl.noCache());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals("[]".getBytes(StandardCharsets.UTF_8), response.getBody());
+    }
+
+    private void assertGzip(String acceptEncoding) {
+        ResponseEntity<byte[]> response = json.toResponse(null, acceptEncoding, CacheControl.noCache());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), acceptEncoding);
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+    }
+
+    private void assertIdentity(String acceptEncoding) {
+        ResponseEntity<byte[]> response = json.toResponse(null, acceptEncoding, CacheControl.noCache());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), acceptEncoding);
+        assertArrayEquals(JSON, response.getBody());
+    }
+}